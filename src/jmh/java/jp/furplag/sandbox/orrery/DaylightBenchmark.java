@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+/**
+ * benchmark for {@link Daylight}, compare the grid which shares the position of the Sun with computing each location in each day .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DaylightBenchmark {
+
+  @Benchmark
+  public double[] grid(final Grid grid) {
+    return new Daylight(grid.start, grid.days).compute(grid.latitudes, grid.longitudes, grid.destination);
+  }
+
+  @Benchmark
+  public double[] eachOfDay(final Grid grid) {
+    for (int i = 0; i < grid.latitudes.length; i++) {
+      for (int day = 0; day < grid.days; day++) {
+        new Daylight(grid.start + day, 1).compute(grid.latitudes[i], grid.longitudes[i], grid.destination, (i * grid.days + day) * Daylight.stride);
+      }
+    }
+
+    return grid.destination;
+  }
+
+  /** locations around Japan, and the destination . */
+  @State(Scope.Thread)
+  public static class Grid {
+
+    @Param({ "1000", "10000" })
+    int locations;
+
+    @Param({ "30" })
+    int days;
+
+    final double start = Deamtiet.j2000 - .5 - 9 / 24.0;
+
+    double[] latitudes;
+
+    double[] longitudes;
+
+    double[] destination;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      final SplittableRandom random = new SplittableRandom(2018);
+      latitudes = random.doubles(locations, 24, 46).toArray();
+      longitudes = random.doubles(locations, 122, 154).toArray();
+      destination = new double[locations * days * Daylight.stride];
+    }
+  }
+}
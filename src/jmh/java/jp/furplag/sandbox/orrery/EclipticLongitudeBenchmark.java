@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link EclipticLongitude} .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EclipticLongitudeBenchmark {
+
+  @Benchmark
+  public double sun(final Instants instants) {
+    return EclipticLongitude.Sun.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moon(final Instants instants) {
+    return EclipticLongitude.Moon.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double sunOfTenth(final Instants instants, final Tuned tuned) {
+    return tuned.sun.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfHundredth(final Instants instants, final Tuned tuned) {
+    return tuned.moon.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfTenth(final Instants instants, final Tuned tuned) {
+    return tuned.moonOfTenth.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Instants.size)
+  public double[] sunOfBatch(final Instants instants, final Longitudes longitudes) {
+    return EclipticLongitude.Sun.getLongitudes(instants.julianDates, longitudes.values);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Instants.size)
+  public double[] moonOfBatch(final Instants instants, final Longitudes longitudes) {
+    return EclipticLongitude.Moon.getLongitudes(instants.julianDates, longitudes.values);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Instants.size)
+  public double moonOfRange(final Instants instants) {
+    final double start = instants.julianDates[instants.next()];
+
+    return EclipticLongitude.Moon.range(start, start + Instants.size / 24.0, 1 / 24.0).sum();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Instants.size)
+  public double moonOfParallelRange(final Instants instants) {
+    final double start = instants.julianDates[instants.next()];
+
+    return EclipticLongitude.Moon.range(start, start + Instants.size / 24.0, 1 / 24.0).parallel().sum();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Instants.size)
+  public double moonOfStepper(final Instants instants) {
+    final double start = instants.julianDates[instants.next()];
+    final Stepper stepper = EclipticLongitude.Moon.stepper(start, start + Instants.size / 24.0, 1 / 24.0);
+    double sum = 0;
+    while (stepper.hasNext()) {
+      sum += stepper.nextDouble();
+    }
+
+    return sum;
+  }
+
+  /** the destination of batch . */
+  @State(Scope.Thread)
+  public static class Longitudes {
+    final double[] values = new double[Instants.size];
+  }
+
+  @Benchmark
+  public double moonOfPolynomial(final Instants instants, final Tuned tuned) {
+    return tuned.moonOfPolynomial.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfTable(final Instants instants, final Tuned tuned) {
+    return tuned.moonOfTable.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  /** the longitudes which truncated, or evaluates with other kernel of cosine . */
+  @State(Scope.Benchmark)
+  public static class Tuned {
+    final EclipticLongitude sun = EclipticLongitude.Sun.truncate(EclipticLongitude.Precision.Tenth);
+    final EclipticLongitude moon = EclipticLongitude.Moon.truncate(EclipticLongitude.Precision.Hundredth);
+    final EclipticLongitude moonOfTenth = EclipticLongitude.Moon.truncate(EclipticLongitude.Precision.Tenth);
+    final EclipticLongitude moonOfPolynomial = EclipticLongitude.Moon.withCosine(Cosine.Polynomial);
+    final EclipticLongitude moonOfTable = EclipticLongitude.Moon.withCosine(Cosine.Table);
+  }
+
+  @Benchmark
+  public double moonOfMemoized(final Instants instants, final Memoizeds memoizeds) {
+    return memoizeds.moon.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfMemoizedMissed(final Instants instants, final Memoizeds memoizeds) {
+    return memoizeds.moonOfMissed.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  /** the longitudes which memoized in a minute, large enough to hold all of {@link Instants}, or not . */
+  @State(Scope.Benchmark)
+  public static class Memoizeds {
+    final Memoized moon = EclipticLongitude.Moon.memoize(1.0 / 1_440, Instants.size << 2);
+    final Memoized moonOfMissed = EclipticLongitude.Moon.memoize(1.0 / 1_440, Memoized.ways);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link Ephemeris}, compare with the series of {@link EclipticLongitude} .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EphemerisBenchmark {
+
+  @Benchmark
+  public double sun(final Instants instants, final Ephemerides ephemerides) {
+    return ephemerides.sun.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double moon(final Instants instants, final Ephemerides ephemerides) {
+    return ephemerides.moon.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double sunOfSeries(final Instants instants) {
+    return EclipticLongitude.Sun.getSeries().estimate(instants.terrestrialTimes[instants.next()]);
+  }
+
+  @Benchmark
+  public double sunOfChebyshev(final Instants instants, final Ephemerides ephemerides) {
+    return ephemerides.sun.estimate(instants.terrestrialTimes[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfSeries(final Instants instants) {
+    return EclipticLongitude.Moon.getSeries().estimate(instants.terrestrialTimes[instants.next()]);
+  }
+
+  @Benchmark
+  public double moonOfChebyshev(final Instants instants, final Ephemerides ephemerides) {
+    return ephemerides.moon.estimate(instants.terrestrialTimes[instants.next()]);
+  }
+
+  /** ephemerides in the default range, which shared in all threads . */
+  @State(Scope.Benchmark)
+  public static class Ephemerides {
+
+    Ephemeris sun;
+
+    Ephemeris moon;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      sun = Ephemeris.of(EclipticLongitude.Sun);
+      moon = Ephemeris.of(EclipticLongitude.Moon);
+    }
+  }
+}
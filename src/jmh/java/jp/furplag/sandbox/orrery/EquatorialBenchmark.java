@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+/**
+ * benchmark for {@link Equatorial}, compare the apparent position which shares the nutation with computing it in each call .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EquatorialBenchmark {
+
+  @Benchmark
+  public double[] apparentOfMoon(final Instants instants, final Coordinates coordinates) {
+    return Equatorial.apparentOf(EclipticLongitude.Moon, instants.julianDates[instants.next()], coordinates.coordinate, 0);
+  }
+
+  @Benchmark
+  public double[] apparentOfMoonUncached(final Instants instants, final Coordinates coordinates) {
+    final Moment moment = Moment.of(instants.julianDates[instants.next()]);
+    final Equatorial.Nutation nutation = new Equatorial.Nutation(moment.getTerrestrialTime());
+
+    return Equatorial.of(moment.getMoon() + nutation.getResidual(), Equatorial.latitudeOfMoon(moment.getTerrestrialTime()), nutation.getTrueObliquity(), coordinates.coordinate, 0);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public double[] apparentOfMoonHourly(final Coordinates coordinates) {
+    return Equatorial.apparentOf(EclipticLongitude.Moon, coordinates.hourly, coordinates.coordinates);
+  }
+
+  /** the destinations, and hourly instants of a year . */
+  @State(Scope.Thread)
+  public static class Coordinates {
+
+    final double[] coordinate = new double[2];
+
+    double[] hourly;
+
+    double[] coordinates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      hourly = IntStream.range(0, 24 * 366).mapToDouble(hour -> Deamtiet.j2000 + hour / 24.0).toArray();
+      coordinates = new double[hourly.length * 2];
+    }
+  }
+}
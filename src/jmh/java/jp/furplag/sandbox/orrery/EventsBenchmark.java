@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link Events}, compare with finding the root in each query .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EventsBenchmark {
+
+  @Benchmark
+  public double nextNewMoon(final Instants instants, final Index index) {
+    // null at the end of the range .
+    final Events.Event event = index.events.next(instants.julianDates[instants.next()], LunarPhase.Phase.New);
+
+    return event == null ? Double.NaN : event.getJulianDate();
+  }
+
+  @Benchmark
+  public double nextNewMoonOfSolver(final Instants instants, final Index index) {
+    return index.lunarPhase.next(instants.julianDates[instants.next()], LunarPhase.Phase.New);
+  }
+
+  @Benchmark
+  public Events.Event next(final Instants instants, final Index index) {
+    return index.events.next(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double ageOfMoon(final Instants instants, final Index index) {
+    return index.events.ageOfMoon(instants.julianDates[instants.next()]);
+  }
+
+  /** the index in the default range, which shared in all threads . */
+  @State(Scope.Benchmark)
+  public static class Index {
+
+    Events events;
+
+    final LunarPhase lunarPhase = new LunarPhase();
+
+    @Setup(Level.Trial)
+    public void setup() {
+      events = Events.of();
+    }
+  }
+}
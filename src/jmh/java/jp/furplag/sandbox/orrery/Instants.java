@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+/**
+ * astronomical julian dates which spreaded over the span of years, that {@link DeltaT.Formula} covers .
+ *
+ * @author furplag
+ *
+ */
+@State(Scope.Thread)
+public class Instants {
+
+  /** the count of julian dates to take turns . */
+  static final int size = 1 << 10;
+
+  /** the span of years ( from..to ) . */
+  @Param({ "-500..3000", "-500..1599", "1600..2149", "2150..3000" })
+  String years;
+
+  /** julian dates . */
+  double[] julianDates;
+
+  /** terrestrial times, those are corresponding to {@link #julianDates} . */
+  double[] terrestrialTimes;
+
+  /** the cursor . */
+  private int index;
+
+  @Setup
+  public void setup() {
+    final String[] span = years.split("\\.\\.");
+    final double from = julianDateOf(Integer.parseInt(span[0]));
+    final double to = julianDateOf(Integer.parseInt(span[1]) + 1);
+    final SplittableRandom random = new SplittableRandom(20180101L);
+    julianDates = random.doubles(size, from, to).toArray();
+    terrestrialTimes = new double[size];
+    for (int i = 0; i < size; i++) {
+      terrestrialTimes[i] = Astror.toTerrestrialTime(julianDates[i]);
+    }
+  }
+
+  /**
+   * returns the cursor and then move it forward .
+   *
+   * @return the cursor
+   */
+  int next() {
+    return index = (index + 1) & (size - 1);
+  }
+
+  /**
+   * returns the julian date at the first moment of the year .
+   *
+   * @param year the year
+   * @return the astronomical julian date
+   */
+  private static double julianDateOf(final int year) {
+    return Deamtiet.julian.ofEpochMilli(ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * benchmark for a whole of calculation at once, Sun and Moon, and its precession .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrreryBenchmark {
+
+  @Benchmark
+  public void together(final Instants instants, final Blackhole blackhole) {
+    final double julianDate = instants.julianDates[instants.next()];
+    final double sun = EclipticLongitude.Sun.getLongitude(julianDate);
+    blackhole.consume(sun);
+    blackhole.consume(EclipticLongitude.Moon.getLongitude(julianDate));
+    blackhole.consume(new Precession(Astror.toTerrestrialTime(julianDate)) {}.compute(sun * Astror.radianizr, 0).optimize(sun));
+  }
+
+  @Benchmark
+  public void togetherOfMoment(final Instants instants, final Blackhole blackhole) {
+    final Moment moment = Moment.of(instants.julianDates[instants.next()]);
+    final double sun = moment.getSun();
+    blackhole.consume(sun);
+    blackhole.consume(moment.getMoon());
+    blackhole.consume(moment.getRotation().compute(sun, 0).getLongitude());
+  }
+}
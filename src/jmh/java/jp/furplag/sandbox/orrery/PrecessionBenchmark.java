@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link Precession} .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PrecessionBenchmark {
+
+  @Benchmark
+  public double compute(final Instants instants) {
+    final int i = instants.next();
+
+    return new Precession(instants.terrestrialTimes[i]) {}.compute(instants.julianDates[i] % Math.PI, 0.25).getLongitude();
+  }
+
+  @Benchmark
+  public double rotation(final Instants instants) {
+    final int i = instants.next();
+
+    return new Precession.Rotation(instants.terrestrialTimes[i]).compute(instants.julianDates[i] % 360.0, 15.0).getLongitude();
+  }
+
+  @Benchmark
+  public double rotationOfCache(final Instants instants) {
+    final int i = instants.next();
+
+    return Precession.Rotation.of(instants.terrestrialTimes[i]).compute(instants.julianDates[i] % 360.0, 15.0).getLongitude();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Catalog.size)
+  public double[] catalog(final Catalog catalog) {
+    for (int i = 0; i < catalog.coordinates.length; i += 2) {
+      catalog.rotation.compute(catalog.coordinates[i], catalog.coordinates[i + 1], catalog.destination, i);
+    }
+
+    return catalog.destination;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Catalog.size)
+  public double[] catalogOfBatch(final Catalog catalog) {
+    return catalog.rotation.compute(catalog.coordinates, catalog.destination);
+  }
+
+  /** pairs of longitude and latitude to precess . */
+  @State(Scope.Thread)
+  public static class Catalog {
+
+    /** the count of pairs . */
+    static final int size = 1 << 18;
+
+    final Precession.Rotation rotation = new Precession.Rotation(.25);
+
+    final double[] coordinates = new SplittableRandom(20180101L).doubles(size * 2, -90, 90).toArray();
+
+    final double[] destination = new double[size * 2];
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link Solver}, compare the secant method with Newton's method which uses the rate of the angle .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SolverBenchmark {
+
+  @Benchmark
+  public double sun(final Instants instants) {
+    return EclipticLongitude.Sun.getLongitude(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double[] sunOfRate(final Instants instants, final Motions motions) {
+    return EclipticLongitude.Sun.getLongitudeAndRate(instants.julianDates[instants.next()], motions.motion, 0);
+  }
+
+  @Benchmark
+  public double solarTermOfSecant(final Instants instants, final Motions motions) {
+    return motions.solver.solve(EclipticLongitude.Sun::getLongitude, 90.0, SolarTerm.rate, instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double solarTermOfNewton(final Instants instants, final Motions motions) {
+    return motions.solver.solve((julianDate, motion) -> EclipticLongitude.Sun.getLongitudeAndRate(julianDate, motion, 0), 90.0, SolarTerm.rate, instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double newMoonOfSecant(final Instants instants, final Motions motions) {
+    return motions.solver.solve(LunarPhase::elongationOf, 0, LunarPhase.rate, instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double newMoonOfNewton(final Instants instants, final Motions motions) {
+    return motions.solver.solve(LunarPhase::motionOf, 0, LunarPhase.rate, instants.julianDates[instants.next()]);
+  }
+
+  /** the solver, and the destination of the motion . */
+  @State(Scope.Thread)
+  public static class Motions {
+    final Solver solver = new Solver(LunarPhase.defaultTolerance, LunarPhase.defaultMaxEvaluations);
+    final double[] motion = new double[2];
+  }
+}
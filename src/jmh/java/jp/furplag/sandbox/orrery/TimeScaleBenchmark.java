@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmark for {@link DeltaT} and {@link Astror} .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TimeScaleBenchmark {
+
+  @Benchmark
+  public double deltaT(final Instants instants) {
+    return DeltaT.estimate(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double yearize(final Instants instants) {
+    return Astror.yearize(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double toTerrestrialTime(final Instants instants) {
+    return Astror.toTerrestrialTime(instants.julianDates[instants.next()]);
+  }
+
+  @Benchmark
+  public double approximateTerrestrialTime(final Instants instants) {
+    return Astror.approximateTerrestrialTime(instants.julianDates[instants.next()]);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+/**
+ * load test of {@link Server} on localhost, each of threads of the benchmark acts as a client which queries the longitude of the Moon .
+ *
+ * @author furplag
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ServerBenchmark {
+
+  @Benchmark
+  public int longitude(final Client client, final Service service) throws IOException, InterruptedException {
+    return service.client.send(HttpRequest.newBuilder(service.uriOf(client.next())).build(), HttpResponse.BodyHandlers.ofString()).body().length();
+  }
+
+  /** a client, which queries random instants within a century around J2000.0 . */
+  @State(Scope.Thread)
+  public static class Client {
+
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      random = new SplittableRandom(20180101L + Thread.currentThread().getId());
+    }
+
+    double next() {
+      return random.nextDouble(Deamtiet.j2000 - 18_262.5, Deamtiet.j2000 + 18_262.5);
+    }
+  }
+
+  /** the server which shared in all clients . */
+  @State(Scope.Benchmark)
+  public static class Service {
+
+    /** the window of merging queries ( in microseconds ) , zero means never merges . */
+    @Param({ "0", "200", "1000" })
+    long window;
+
+    Server server;
+
+    HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      server = new Server(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), null, TimeUnit.MICROSECONDS.toNanos(window));
+      client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      System.out.printf("%n%d queries in %d batches .%n", server.getQueries(), server.getBatches());
+      server.close();
+    }
+
+    URI uriOf(final double julianDate) {
+      return URI.create(String.format("http://localhost:%d/longitude?planet=moon&jd=%s", server.getAddress().getPort(), julianDate));
+    }
+  }
+}
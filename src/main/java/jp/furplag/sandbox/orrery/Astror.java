@@ -15,8 +15,6 @@
  */
 package jp.furplag.sandbox.orrery;
 
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import jp.furplag.sandbox.time.Deamtiet;
 
 /**
@@ -33,6 +31,9 @@ public interface Astror {
   /** angle to radian . */
   static final double degreezr = 180.0 / Math.PI;
 
+  /** milliseconds of a day . */
+  static final double millisOfDay = 86_400_000.0;
+
   /**
    * normalize the degree to range of 0&deg; - 360&deg; .
    *
@@ -40,7 +41,28 @@ public interface Astror {
    * @return normalized degree to range of 0&deg; - 360&deg;
    */
   static double circulate(final double degree) {
-    return degree % 360.0 == 0 ? 0 : ((degree % 360.0) + (degree < 0.0 ? 360.0 : 0.0));
+    final double remainder = remainderOf(degree);
+
+    return remainder == 0 ? 0 : (remainder + (degree < 0.0 ? 360.0 : 0.0));
+  }
+
+  /**
+   * returns the remainder of the degree divided by 360&deg; , exactly the same as {@code degree % 360.0} except the sign of zero .
+   * <p>
+   * the remainder of doubles compiles to a call into the runtime which costs as much as a series of terms, so that subtracts the multiple of 360&deg;
+   * instead while the quotient is exact in a long ( the difference is exact, and corrected once if the quotient rounded up to the next integer ) .
+   * </p>
+   *
+   * @param degree the degree
+   * @return the remainder, which has the same sign as the degree
+   */
+  static double remainderOf(final double degree) {
+    if (!(Math.abs(degree) < 0x1p52)) {
+      return degree % 360.0;
+    }
+    final double remainder = degree - ((long) (degree / 360.0)) * 360.0;
+
+    return remainder == 0 || (remainder < 0) == (degree < 0) ? remainder : remainder + (degree < 0 ? -360.0 : 360.0);
   }
 
   /**
@@ -53,6 +75,18 @@ public interface Astror {
     return (julianDate - Deamtiet.j2000 + (getDeltaOfT(julianDate))) / (Deamtiet.daysOfYearOfJulian * 100.0);
   }
 
+  /**
+   * calculates the delta between Universal Time (UT) and Terrestrial Time (TT) , with the table of Delta T .
+   * <p>faster than {@link #toTerrestrialTime(double)} for bulk of instants , and differs at most {@link DeltaT.Grid#maxError} seconds of Delta T .</p>
+   *
+   * @param julianDate the astronomical julian date
+   * @return &Delta;T
+   * @see DeltaT.Grid
+   */
+  static double approximateTerrestrialTime(final double julianDate) {
+    return (julianDate - Deamtiet.j2000 + (DeltaT.Grid.estimate(julianDate) / 86_400.0)) / (Deamtiet.daysOfYearOfJulian * 100.0);
+  }
+
   /**
    * calculate the delta between Universal Time (UT) and Terrestrial Time (TT) .
    *
@@ -60,18 +94,41 @@ public interface Astror {
    * @return &Delta;T
    */
   static double getDeltaOfT(final double julianDate) {
-    return Deamtiet.julian.ofEpochMilli(((long) (DeltaT.estimate(julianDate) * 1000))) - Deamtiet.epochAsJulianDate;
+    return daysOf(DeltaT.estimate(julianDate));
+  }
+
+  /**
+   * converts seconds to days, in the same precision as the difference of astronomical julian dates .
+   * <p>equivalent to {@code Deamtiet.julian.ofEpochMilli((long) (seconds * 1000)) - Deamtiet.epochAsJulianDate} .</p>
+   *
+   * @param seconds seconds
+   * @return days
+   */
+  static double daysOf(final double seconds) {
+    return (Deamtiet.epochAsJulianDate + (((long) (seconds * 1000)) / millisOfDay)) - Deamtiet.epochAsJulianDate;
   }
 
   /**
    * returns the decimal year represented by specified AJD .
+   * <p>
+   * the date ( UTC, proleptic Gregorian ) is computed arithmetically, without any of java.time objects .
+   * the instant is truncated to milliseconds toward zero before the day is floored, the same as {@code Deamtiet.julian.toInstant(julianDate)} .
+   * </p>
    *
    * @param julianDate the astronomical julian date
    * @return the decimal year represented by specified AJD
    */
   static double yearize(final double julianDate) {
-    final ZonedDateTime utc = Deamtiet.julian.toInstant(julianDate).atZone(ZoneOffset.UTC);
+    // days from 0000-03-01 ( proleptic Gregorian ) , see http://howardhinnant.github.io/date_algorithms.html#civil_from_days .
+    final long days = Math.floorDiv((long) ((julianDate - Deamtiet.epochAsJulianDate) * millisOfDay), (long) millisOfDay) + 719_468L;
+    final long era = Math.floorDiv(days, 146_097L);
+    final long dayOfEra = days - era * 146_097L;
+    final long yearOfEra = (dayOfEra - dayOfEra / 1_460L + dayOfEra / 36_524L - dayOfEra / 146_096L) / 365L;
+    final long dayOfYear = dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+    final long monthOfYear = (5L * dayOfYear + 2L) / 153L;
+    final long month = monthOfYear < 10 ? monthOfYear + 3 : monthOfYear - 9;
+    final long year = yearOfEra + era * 400L + (month < 3 ? 1 : 0);
 
-    return (utc.getYear() == 0 ? -1 : utc.getYear() < 0 ? (utc.getYear() - 1) : utc.getYear()) + ((utc.getMonthValue() - .5) / 12);
+    return (year == 0 ? -1 : year < 0 ? (year - 1) : year) + ((month - .5) / 12);
   }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import lombok.Getter;
+
+/**
+ * kernels of cosine for the argument in degrees, which have the maximum absolute error respectively .
+ * <p>
+ * the error is against the cosine of the argument which reduced modulo 360&deg; exactly, for the argument within &plusmn;10<sup>8</sup>&deg;
+ * ( the series of {@link EclipticLongitude} reaches about 6 &times; 10<sup>7</sup>&deg; in -0500 - 3000 ) .
+ * {@link #Polynomial} and {@link #Table} reduce the argument in degrees, so those avoid the rounding error of
+ * multiplying a huge argument by &pi;/180, which is the most of the error of {@link #Intrinsic} .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public enum Cosine {
+
+  /** {@link Math#cos(double)}, exactly the same as before . */
+  Intrinsic(2E-10) {/* @formatter:off */
+    /** {@inheritDoc} */ @Override public double cos(final double degree) { return Math.cos(degree * Astror.radianizr); }
+    /** {@inheritDoc} */ @Override public double[] cosAndSin(final double degree, final double[] destination, final int offset) {
+      final double radian = degree * Astror.radianizr;
+      destination[offset] = Math.cos(radian);
+      destination[offset + 1] = Math.sin(radian);
+
+      return destination;
+    }
+  /* @formatter:on */},
+
+  /** polynomials of the octant, which reduced in degrees . */
+  Polynomial(2E-10) {
+
+    /** {@inheritDoc} */
+    @Override
+    public double cos(final double degree) {
+      final double reduced = Math.abs(reduce(degree));
+      final boolean negate = reduced > 90;
+      final double quadrant = negate ? 180 - reduced : reduced;
+      final double result = quadrant > 45 ? sine((90 - quadrant) * Astror.radianizr) : cosine(quadrant * Astror.radianizr);
+
+      return negate ? -result : result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] cosAndSin(final double degree, final double[] destination, final int offset) {
+      final double signed = reduce(degree), reduced = Math.abs(signed);
+      final boolean negate = reduced > 90;
+      final double quadrant = negate ? 180 - reduced : reduced;
+      final boolean swap = quadrant > 45;
+      final double cosine = swap ? sine((90 - quadrant) * Astror.radianizr) : cosine(quadrant * Astror.radianizr);
+      final double sine = swap ? cosine((90 - quadrant) * Astror.radianizr) : sine(quadrant * Astror.radianizr);
+      destination[offset] = negate ? -cosine : cosine;
+      destination[offset + 1] = signed < 0 ? -sine : sine;
+
+      return destination;
+    }
+
+    /**
+     * cosine in [ -&pi;/4, &pi;/4 ] .
+     *
+     * @param radian the radian
+     * @return cosine
+     */
+    private double cosine(final double radian) {
+      final double x = radian * radian;
+
+      return 1 + x * (-1 / 2.0 + x * (1 / 24.0 + x * (-1 / 720.0 + x * (1 / 40320.0 + x * (-1 / 3628800.0)))));
+    }
+
+    /**
+     * sine in [ -&pi;/4, &pi;/4 ] .
+     *
+     * @param radian the radian
+     * @return sine
+     */
+    private double sine(final double radian) {
+      final double x = radian * radian;
+
+      return radian * (1 + x * (-1 / 6.0 + x * (1 / 120.0 + x * (-1 / 5040.0 + x * (1 / 362880.0 + x * (-1 / 39916800.0))))));
+    }
+  },
+
+  /** the table of each degree, which interpolated with the angle addition . */
+  Table(3E-10) {
+
+    /** {@inheritDoc} */
+    @Override
+    public double cos(final double degree) {
+      final double reduced = reduce(degree) + 180;
+      final int index = (int) Math.rint(reduced);
+      final double delta = (reduced - index) * Astror.radianizr, square = delta * delta;
+
+      return cosines[index] * (1 - square / 2) - sines[index] * (delta * (1 - square / 6));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] cosAndSin(final double degree, final double[] destination, final int offset) {
+      final double reduced = reduce(degree) + 180;
+      final int index = (int) Math.rint(reduced);
+      final double delta = (reduced - index) * Astror.radianizr, square = delta * delta;
+      final double cosineOfDelta = 1 - square / 2, sineOfDelta = delta * (1 - square / 6);
+      destination[offset] = cosines[index] * cosineOfDelta - sines[index] * sineOfDelta;
+      destination[offset + 1] = sines[index] * cosineOfDelta + cosines[index] * sineOfDelta;
+
+      return destination;
+    }
+  };
+
+  /** cosine of each degree from -180&deg; to 180&deg; . */
+  private static final double[] cosines = new double[362];
+
+  /** sine of each degree from -180&deg; to 180&deg; . */
+  private static final double[] sines = new double[362];
+  static {
+    for (int i = 0; i < cosines.length; i++) {
+      cosines[i] = Math.cos((i - 180) * Astror.radianizr);
+      sines[i] = Math.sin((i - 180) * Astror.radianizr);
+    }
+  }
+
+  /** the maximum absolute error . */
+  @Getter
+  private final double maxError;
+
+  private Cosine(final double maxError) {
+    this.maxError = maxError;
+  }
+
+  /**
+   * returns the cosine of the angle in degrees .
+   *
+   * @param degree the angle in degrees
+   * @return cosine
+   */
+  public abstract double cos(double degree);
+
+  /**
+   * stores the cosine and the sine of the angle in degrees, which reduced only once .
+   * <p>
+   * the cosine is exactly the same as {@link #cos(double)}, and the sine has the same maximum absolute error .
+   * </p>
+   *
+   * @param degree the angle in degrees
+   * @param destination stores the cosine at the offset, and the sine at next
+   * @param offset the index to store
+   * @return destination
+   */
+  public abstract double[] cosAndSin(double degree, double[] destination, int offset);
+
+  /**
+   * reduces the angle to range of -180&deg; - 180&deg; .
+   *
+   * @param degree the angle in degrees
+   * @return reduced angle
+   */
+  static double reduce(final double degree) {
+    return degree - Math.rint(degree / 360.0) * 360.0;
+  }
+}
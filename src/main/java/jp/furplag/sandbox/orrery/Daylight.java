@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.Getter;
+
+/**
+ * the instants of sunrise, transit and sunset, for a grid of locations in a range of days .
+ * <p>
+ * the position of the Sun ( right ascension and declination ) and the sidereal time are computed once for each day of the range
+ * ( and a day of each side ) , and shared by all locations which interpolate those ( Meeus, Astronomical Algorithms, chapter 15 ) .
+ * the results are astronomical julian dates ( UT ) , stored for each location in order of day as triples of sunrise, transit and sunset .
+ * sunrise and sunset are NaN if the Sun does not rise or set in the day ( the midnight sun, or the polar night ) .
+ * </p>
+ * <p>an instance is immutable, so that is able to share in threads . locations of a grid are processed in parallel .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class Daylight {
+
+  /** the altitude of the center of the Sun at sunrise and sunset ( degrees ) , which includes the refraction and the semidiameter . */
+  static final double altitude = -0.8333;
+
+  /** coefficients of the mean sidereal time at Greenwich ( degrees, at J2000.0, per day, by T squared and by T cubed ) . */
+  static final double[] constOfSiderealTime = {280.46061837, 360.98564736629, 0.000387933, -1.0 / 38710000.0};
+
+  /** the count of corrections to the instants which interpolated . */
+  static final int corrections = 2;
+
+  /** the tolerance of the instants of sunrise and sunset ( a second, in days ) . */
+  static final double tolerance = 1.0 / 86400.0;
+
+  /** the limit count of iterations to correct sunrise or sunset, which includes bisections . */
+  static final int maxIterations = 64;
+
+  /** the count of values for each day of a location ( sunrise, transit and sunset ) . */
+  public static final int stride = 3;
+
+  /** the astronomical julian date of the start of the first day . */
+  @Getter
+  private final double start;
+
+  /** the count of days . */
+  @Getter
+  private final int days;
+
+  /** right ascensions of the Sun at the start of each day, from the day before the first to the day after the last . */
+  private final double[] rightAscensions;
+
+  /** declinations of the Sun at the start of each day, from the day before the first to the day after the last . */
+  private final double[] declinations;
+
+  /** the mean sidereal time at Greenwich at the start of each day . */
+  private final double[] siderealTimes;
+
+  /**
+   * computes the position of the Sun for each day of the range .
+   *
+   * @param start the astronomical julian date of the start of the first day ( the midnight of local time, in UT )
+   * @param days the count of days
+   * @throws IllegalArgumentException if the start is not finite, or the days is not positive
+   */
+  public Daylight(final double start, final int days) {
+    if (!Double.isFinite(start)) {
+      throw new IllegalArgumentException("start must be a finite number: " + start);
+    } else if (days < 1 || days > Integer.MAX_VALUE / stride) {
+      throw new IllegalArgumentException("days must be in range of 1 - " + (Integer.MAX_VALUE / stride) + ": " + days);
+    }
+    this.start = start;
+    this.days = days;
+    rightAscensions = new double[days + 2];
+    declinations = new double[days + 2];
+    final double[] coordinate = new double[2];
+    for (int i = 0; i < days + 2; i++) {
+      Equatorial.ofSun(Moment.of(start + i - 1), coordinate, 0);
+      rightAscensions[i] = coordinate[0];
+      declinations[i] = coordinate[1];
+    }
+    siderealTimes = IntStream.range(0, days).mapToDouble(day -> siderealTimeOf(start + day)).toArray();
+  }
+
+  /**
+   * returns the mean sidereal time at Greenwich .
+   *
+   * @param julianDate the astronomical julian date ( UT )
+   * @return the mean sidereal time in range of 0&deg; - 360&deg;
+   */
+  public static double siderealTimeOf(final double julianDate) {
+    final double days = julianDate - Deamtiet.j2000, terrestrialTime = days / (Deamtiet.daysOfYearOfJulian * 100.0);
+
+    return Astror.circulate(constOfSiderealTime[0] + constOfSiderealTime[1] * days + terrestrialTime * terrestrialTime * (constOfSiderealTime[2] + terrestrialTime * constOfSiderealTime[3]));
+  }
+
+  /**
+   * returns the equation of time at the start of the day, which shared by all locations .
+   *
+   * @param day the index of day
+   * @return the apparent solar time minus the mean solar time ( in days )
+   * @throws IndexOutOfBoundsException if the day is out of the range
+   */
+  public double getEquationOfTime(final int day) {
+    Objects.checkIndex(day, days);
+    final double fraction = start + day + .5;
+
+    return Solver.lag(siderealTimes[day] - rightAscensions[day + 1] + 180.0, (fraction - Math.floor(fraction)) * 360.0) / 360.0;
+  }
+
+  /**
+   * returns sunrise, transit and sunset of each day at the locations .
+   *
+   * @param latitudes latitudes of locations ( degrees, north is positive )
+   * @param longitudes longitudes of locations ( degrees, east is positive )
+   * @return triples of sunrise, transit and sunset for each location in order of day
+   * @throws IllegalArgumentException if the counts of latitudes and longitudes differ, or any of locations is invalid
+   * @see #compute(double[], double[], double[])
+   */
+  public double[] compute(final double[] latitudes, final double[] longitudes) {
+    return compute(latitudes, longitudes, new double[Math.multiplyExact(latitudes.length, days * stride)]);
+  }
+
+  /**
+   * stores sunrise, transit and sunset of each day at the locations into the array .
+   * <p>
+   * the results of a location start from the index of the location times {@link #stride} times days, and each result is
+   * exactly the same as {@link #compute(double, double, double[], int)} .
+   * </p>
+   *
+   * @param latitudes latitudes of locations ( degrees, north is positive )
+   * @param longitudes longitudes of locations ( degrees, east is positive )
+   * @param destination the array to store the results
+   * @return destination
+   * @throws IllegalArgumentException if the counts of latitudes and longitudes differ, or any of locations is invalid
+   * @throws IndexOutOfBoundsException if the destination has no room for the results
+   */
+  public double[] compute(final double[] latitudes, final double[] longitudes, final double[] destination) {
+    if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("latitudes and longitudes must be the same count: " + latitudes.length + ", " + longitudes.length);
+    }
+    Objects.checkFromIndexSize(0, Math.multiplyExact(latitudes.length, days * stride), destination.length);
+    IntStream.range(0, latitudes.length).parallel().forEach(i -> compute(latitudes[i], longitudes[i], destination, i * days * stride));
+
+    return destination;
+  }
+
+  /**
+   * stores sunrise, transit and sunset of each day at the location into the array .
+   * <p>
+   * each of instants is in the day, or a little out of the day if the event is near the boundary of the day .
+   * sunrise and sunset are between the transits of the Sun which those belong to, so that those never leave the day more than half a day .
+   * </p>
+   *
+   * @param latitude the latitude of the location ( degrees, north is positive )
+   * @param longitude the longitude of the location ( degrees, east is positive )
+   * @param destination the array to store the results
+   * @param offset the index to store the sunrise of the first day
+   * @return destination
+   * @throws IllegalArgumentException if the latitude is not in range of -90&deg; - 90&deg;, or the longitude is not finite
+   * @throws IndexOutOfBoundsException if the destination has no room for the results
+   */
+  public double[] compute(final double latitude, final double longitude, final double[] destination, final int offset) {
+    if (!(Math.abs(latitude) <= 90.0)) {
+      throw new IllegalArgumentException("latitude must be in range of -90 - 90: " + latitude);
+    } else if (!Double.isFinite(longitude)) {
+      throw new IllegalArgumentException("longitude must be a finite number: " + longitude);
+    }
+    Objects.checkFromIndexSize(offset, days * stride, destination.length);
+    final double phi = latitude * Astror.radianizr, sineOfPhi = Math.sin(phi), cosineOfPhi = Math.cos(phi);
+    final double sineOfAltitude = Math.sin(altitude * Astror.radianizr);
+    for (int day = 0; day < days; day++) {
+      final int index = offset + day * stride;
+      final double delta = declinations[day + 1] * Astror.radianizr;
+      final double transit = Astror.circulate(rightAscensions[day + 1] - longitude - siderealTimes[day]) / 360.0;
+      final double cosineOfHourAngle = (sineOfAltitude - sineOfPhi * Math.sin(delta)) / (cosineOfPhi * Math.cos(delta));
+      destination[index + 1] = start + day + transitOf(day, transit, longitude);
+      if (Math.abs(cosineOfHourAngle) <= 1) {
+        final double hourAngle = Math.acos(cosineOfHourAngle) * Astror.degreezr / 360.0;
+        destination[index] = start + day + correct(day, fractionOf(transit - hourAngle), -hourAngle, longitude, sineOfPhi, cosineOfPhi);
+        destination[index + 2] = start + day + correct(day, fractionOf(transit + hourAngle), hourAngle, longitude, sineOfPhi, cosineOfPhi);
+      } else {
+        destination[index] = Double.NaN;
+        destination[index + 2] = Double.NaN;
+      }
+    }
+
+    return destination;
+  }
+
+  /**
+   * corrects the instant of the transit with the position of the Sun which interpolated at the instant .
+   *
+   * @param day the index of day
+   * @param fraction the instant in the day ( 0 - 1 )
+   * @param longitude the longitude of the location
+   * @return the instant which corrected ( in days from the start of the day )
+   */
+  private double transitOf(final int day, final double fraction, final double longitude) {
+    double m = fraction;
+    for (int i = 0; i < corrections; i++) {
+      m -= hourAngleOf(day, m, longitude) / 360.0;
+    }
+
+    return m;
+  }
+
+  /**
+   * corrects the instant of sunrise or sunset with the position of the Sun which interpolated at the instant .
+   * <p>
+   * corrects {@link #corrections} times at least, and then until the step is less than {@link #tolerance} .
+   * the instant is kept between the upper transit and the lower transit which the estimate belongs to, and the step of
+   * Newton's method falls back to bisection if it leaves those ( the Sun is near either of the transits, in the days close to the midnight sun or the polar night ) .
+   * the altitudes at the transits are computed only at the first bisection, so that the usual case costs no more than the corrections .
+   * </p>
+   *
+   * @param day the index of day
+   * @param fraction the instant in the day which estimated ( 0 - 1 )
+   * @param hourAngle the hour angle of the estimate ( in days, negative for sunrise )
+   * @param longitude the longitude of the location
+   * @param sineOfPhi the sine of the latitude
+   * @param cosineOfPhi the cosine of the latitude
+   * @return the instant which corrected ( in days from the start of the day ) , or NaN if the Sun does not pass the altitude between the transits
+   */
+  private double correct(final int day, final double fraction, final double hourAngle, final double longitude, final double sineOfPhi, final double cosineOfPhi) {
+    double above = fraction - hourAngle, below = above + Math.copySign(180.0 / constOfSiderealTime[1], hourAngle);
+    boolean bracketed = false;
+    double m = fraction;
+    for (int i = 0, steps = 0; i < maxIterations; i++) {
+      final double delta = interpolate(declinations, day, m) * Astror.radianizr, h = hourAngleOf(day, m, longitude) * Astror.radianizr;
+      final double elevation = Math.asin(sineOfPhi * Math.sin(delta) + cosineOfPhi * Math.cos(delta) * Math.cos(h)) * Astror.degreezr;
+      if (elevation < altitude) {
+        below = m;
+      } else {
+        above = m;
+      }
+      final double next = m + (elevation - altitude) / (360.0 * Math.cos(delta) * cosineOfPhi * Math.sin(h));
+      if (Math.min(above, below) <= next && next <= Math.max(above, below)) {
+        if (++steps >= corrections && Math.abs(next - m) < tolerance) {
+          return next;
+        }
+        m = next;
+      } else {
+        if (!bracketed) {
+          if (elevationOf(day, above, longitude, sineOfPhi, cosineOfPhi) < altitude || elevationOf(day, below, longitude, sineOfPhi, cosineOfPhi) >= altitude) {
+            return Double.NaN;
+          }
+          bracketed = true;
+        }
+        m = (above + below) / 2.0;
+      }
+    }
+
+    return m;
+  }
+
+  /**
+   * returns the hour angle of the Sun which interpolated at the instant .
+   *
+   * @param day the index of day
+   * @param fraction the instant in days from the start of the day
+   * @param longitude the longitude of the location
+   * @return the hour angle in range of -180&deg; - 180&deg;
+   */
+  private double hourAngleOf(final int day, final double fraction, final double longitude) {
+    return Solver.lag(siderealTimes[day] + constOfSiderealTime[1] * fraction + longitude, interpolate(rightAscensions, day, fraction));
+  }
+
+  /**
+   * returns the altitude of the Sun which interpolated at the instant .
+   *
+   * @param day the index of day
+   * @param fraction the instant in days from the start of the day
+   * @param longitude the longitude of the location
+   * @param sineOfPhi the sine of the latitude
+   * @param cosineOfPhi the cosine of the latitude
+   * @return the altitude of the Sun ( degrees )
+   */
+  private double elevationOf(final int day, final double fraction, final double longitude, final double sineOfPhi, final double cosineOfPhi) {
+    final double delta = interpolate(declinations, day, fraction) * Astror.radianizr, h = hourAngleOf(day, fraction, longitude) * Astror.radianizr;
+
+    return Math.asin(sineOfPhi * Math.sin(delta) + cosineOfPhi * Math.cos(delta) * Math.cos(h)) * Astror.degreezr;
+  }
+
+  /**
+   * interpolates the angle with the values of the day before, the day and the day after ( the differences are in range of -180&deg; - 180&deg; ) .
+   *
+   * @param values the angles of each day, from the day before the first
+   * @param day the index of day
+   * @param fraction the instant in the day
+   * @return the angle which interpolated
+   */
+  private static double interpolate(final double[] values, final int day, final double fraction) {
+    final double a = Solver.lag(values[day + 1], values[day]), b = Solver.lag(values[day + 2], values[day + 1]);
+
+    return values[day + 1] + fraction / 2.0 * (a + b + fraction * (b - a));
+  }
+
+  /**
+   * returns the fraction in range of 0 - 1 .
+   *
+   * @param value the value
+   * @return the fraction of the value
+   */
+  private static double fractionOf(final double value) {
+    return value - Math.floor(value);
+  }
+}
@@ -17,12 +17,11 @@ package jp.furplag.sandbox.orrery;
 
 import java.time.temporal.ValueRange;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import jp.furplag.sandbox.stream.Streamr;
+import jp.furplag.sandbox.time.Deamtiet;
 
 /**
  * finding values for Delta T, the difference between Terrestrial Time (TT) and Universal Time (UT1) .
@@ -35,6 +34,7 @@ public interface DeltaT {
 
   /**
    * the formula type to find values for Delta T .
+   * <p>each formula is a polynomial, which evaluates with Horner's rule over the coefficients computed in construction .</p>
    *
    * @author furplag
    *
@@ -43,7 +43,7 @@ public interface DeltaT {
 
     /** the default of formula ( maybe unnecessary with Java ) . */
     private static final Formula origin = new Formula(Long.MIN_VALUE, Long.MAX_VALUE) {
-      /** {@inheritDoc} */ @Override double estimate(double decimalYear) { return -20 + 32 * Math.pow((decimalYear - 1820) / 100, 2); }
+      /** {@inheritDoc} */ @Override double estimate(double decimalYear) { final double u = (decimalYear - 1820) / 100; return -20 + 32 * (u * u); }
     };
 
     /**
@@ -54,15 +54,7 @@ public interface DeltaT {
      */
     static abstract class Medieval extends Formula {
       Medieval(long min, long max, double... parameters) {
-        super(min, max, parameters);
-      }
-
-      /** {@inheritDoc} */
-      @Override
-      public double estimate(double decimalYear) {
-        final double t = decimalYear - n[0];
-
-        return n[1] + (n[2] * t) + (n[3] * Math.pow(t, 2) / n[4]) + (n[5] * Math.pow(t, 3) / n[6]) + (n[7] * Math.pow(t, 4) / n[8]) + (n[9] * Math.pow(t, 5) / n[10]);
+        super(min, max, parameters[0], 1, parameters[1], parameters[2], parameters[3] / parameters[4], parameters[5] / parameters[6], parameters[7] / parameters[8], parameters[9] / parameters[10]);
       }
     }
 
@@ -73,39 +65,61 @@ public interface DeltaT {
      * @return {@link Formula}
      */
     static Formula of(final double decimalYear) {
-      return Streamr.Filter.filtering(minions, minion -> minion.range.isValidValue((long) (Math.floor(decimalYear)))).findFirst().orElse(origin);
+      final double year = Math.floor(decimalYear);
+      final int found = Arrays.binarySearch(since, year);
+      final int i = found < 0 ? -found - 2 : found;
+
+      return i < 0 || year > minions[i].range.getMaximum() ? origin : minions[i];
     }
 
-    private final static Set<Formula> minions = Collections.unmodifiableSet(
-      Streamr.stream(
-          new Formula(-500, 499, 0, 100, 10583.6, -1014.41, 33.78311, -5.952053, -0.1798452, 0.022174192, 0.0090316521, 0) {}
-        , new Formula(500, 1599, 1000, 100, 1574.2, -556.01, 71.23472, 0.319781, -0.8503463, -0.005050998, 0.0083572073, 0) {}
-        , new Formula.Medieval(1600, 1699, 1600, 120, -0.9808, -0.01532, 1, 1, 7129, 0, 1, 0, 1) {}
-        , new Formula.Medieval(1700, 1799, 1700, 8.83, 0.1603, -0.0059285, 1, 0.00013336, 1, -1, 1174000, 0, 1) {}
-        , new Formula(1800, 1859, 1800, 1, 13.72, -0.332447, 0.0068612, 0.0041116, -0.00037436, 0.0000121272, -0.0000001699, 0.000000000875) {}
-        , new Formula.Medieval(1860, 1899, 1860, 7.62, 0.5737, -0.251754, 1, 0.01680668, 1, -0.0004473624, 1, 1, 233174) {}
-        , new Formula(1900, 1919, 1900, 1, -2.79, 1.494119, -0.0598939, 0.0061966, -0.000197, 0, 0, 0) {}
-        , new Formula(1920, 1940, 1920, 1, 21.20, 0.84493, -0.076100, 0.0020936, 0, 0, 0, 0) {}
-        , new Formula.Medieval(1941, 1960, 1950, 29.07, 0.407, -1, 233, 1, 2547, 0, 1, 0, 1) {}
-        , new Formula.Medieval(1961, 1985, 1975, 45.45, 1.067, -1, 260, -1, 718, 0, 1, 0, 1) {}
-        , new Formula(1986, 2004, 2000, 1, 63.86, 0.3345, -0.060374, 0.0017275, 0.000651814, 0.00002373599, 0, 0) {}
-        , new Formula(2005, 2049, 2000, 1, 62.92, 0.32217, 0.005589, 0, 0, 0, 0, 0) {}
-
-        , new Formula(2050, 2149) {
-          /** {@inheritDoc} */ @Override double estimate(double decimalYear) { return origin.estimate(decimalYear) - 0.5628 * (2150 - decimalYear); }
-        }
-      ).collect(Collectors.toSet())
-    );
+    /** formulas, which ordered by the range of year . */
+    private static final Formula[] minions = Arrays.stream(new Formula[] {
+        new Formula(-500, 499, 0, 100, 10583.6, -1014.41, 33.78311, -5.952053, -0.1798452, 0.022174192, 0.0090316521, 0) {}
+      , new Formula(500, 1599, 1000, 100, 1574.2, -556.01, 71.23472, 0.319781, -0.8503463, -0.005050998, 0.0083572073, 0) {}
+      , new Formula.Medieval(1600, 1699, 1600, 120, -0.9808, -0.01532, 1, 1, 7129, 0, 1, 0, 1) {}
+      , new Formula.Medieval(1700, 1799, 1700, 8.83, 0.1603, -0.0059285, 1, 0.00013336, 1, -1, 1174000, 0, 1) {}
+      , new Formula(1800, 1859, 1800, 1, 13.72, -0.332447, 0.0068612, 0.0041116, -0.00037436, 0.0000121272, -0.0000001699, 0.000000000875) {}
+      , new Formula.Medieval(1860, 1899, 1860, 7.62, 0.5737, -0.251754, 1, 0.01680668, 1, -0.0004473624, 1, 1, 233174) {}
+      , new Formula(1900, 1919, 1900, 1, -2.79, 1.494119, -0.0598939, 0.0061966, -0.000197, 0, 0, 0) {}
+      , new Formula(1920, 1940, 1920, 1, 21.20, 0.84493, -0.076100, 0.0020936, 0, 0, 0, 0) {}
+      , new Formula.Medieval(1941, 1960, 1950, 29.07, 0.407, -1, 233, 1, 2547, 0, 1, 0, 1) {}
+      , new Formula.Medieval(1961, 1985, 1975, 45.45, 1.067, -1, 260, -1, 718, 0, 1, 0, 1) {}
+      , new Formula(1986, 2004, 2000, 1, 63.86, 0.3345, -0.060374, 0.0017275, 0.000651814, 0.00002373599, 0, 0) {}
+      , new Formula(2005, 2049, 2000, 1, 62.92, 0.32217, 0.005589, 0, 0, 0, 0, 0) {}
+
+      , new Formula(2050, 2149) {
+        /** {@inheritDoc} */ @Override double estimate(double decimalYear) { return origin.estimate(decimalYear) - 0.5628 * (2150 - decimalYear); }
+      }
+    }).sorted(Comparator.comparingLong(minion -> minion.range.getMinimum())).toArray(Formula[]::new);
+
+    /** the first year of each formula, to search . */
+    private static final double[] since = Arrays.stream(minions).mapToDouble(minion -> minion.range.getMinimum()).toArray();
 
     /** the range of year, which using to choose one of a {@link Formula} . */
     final ValueRange range;
 
-    /** parameter of formula . */
-    final double[] n;
+    /** the year to start counting . */
+    final double epoch;
+
+    /** the unit of year . */
+    final double scale;
 
+    /** coefficients of polynomial, in order of degree . */
+    final double[] coefficients;
+
+    /**
+     * the formula type to find values for Delta T .
+     *
+     * @param min the first year of range
+     * @param max the last year of range
+     * @param parameter the year to start counting, the unit of year, and then coefficients of polynomial
+     */
     protected Formula(long min, long max, double... parameter) {
       range = ValueRange.of(min, max);
-      n = Arrays.stream(Optional.ofNullable(parameter).orElse(new double[] {})).toArray();
+      final double[] n = Optional.ofNullable(parameter).orElse(new double[] {});
+      epoch = n.length > 0 ? n[0] : 0;
+      scale = n.length > 1 ? n[1] : 1;
+      coefficients = n.length > 2 ? Arrays.copyOfRange(n, 2, n.length) : new double[] {};
     }
 
     /**
@@ -116,9 +130,107 @@ public interface DeltaT {
      * @return estimated delta T value (seconds)
      */
     double estimate(double decimalYear) {
-      final double ut = (decimalYear - n[0]) / n[1];
+      final double ut = (decimalYear - epoch) / scale;
+      double result = 0;
+      for (int i = coefficients.length - 1; i >= 0; i--) {
+        result = result * ut + coefficients[i];
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * precomputed Delta T at fixed spacing of julian date, which answers by cubic interpolation .
+   * <p>the table covers 35 julian centuries from J2000.0 - 25 centuries ( about -0500 ) , and each century is built lazily at the first lookup .
+   * nodes are sampled from the formulas at a continuous decimal year ( the Gregorian mean year ) , so that the result is smooth
+   * while {@link DeltaT#estimate(double)} steps month by month . the difference between them is less than 1 second
+   * ( the drift of Delta T within a half month in the remote past ) , except around 0001-01-01 where the decimal year skips the year zero ,
+   * so at most {@link #maxError} seconds .</p>
+   * <p>out of the table , simply falls back to {@link DeltaT#estimate(double)} .</p>
+   *
+   * @author furplag
+   *
+   */
+  static final class Grid {
+
+    /** days of a julian century . */
+    static final double daysOfCentury = Deamtiet.daysOfYearOfJulian * 100.0;
+
+    /** days of the Gregorian mean year . */
+    static final double daysOfMeanYear = 365.2425;
+
+    /** the first julian date of the table ( about -0500-01-01 ) . */
+    static final double since = Deamtiet.j2000 - .5 - 25 * daysOfCentury;
+
+    /** count of centuries in the table . */
+    static final int centuries = 35;
+
+    /** count of intervals in a century . */
+    static final int nodes = 2048;
+
+    /** interval of nodes ( days ) . */
+    static final double spacing = daysOfCentury / nodes;
+
+    /** the maximum difference ( seconds ) from {@link DeltaT#estimate(double)} in the table . */
+    static final double maxError = 7.0;
+
+    /** nodes of each century, which contains one more node for each side to interpolate . */
+    private static final AtomicReferenceArray<double[]> table = new AtomicReferenceArray<>(centuries);
+
+    /** no need to instantiate . */
+    private Grid() {}
+
+    /**
+     * returns Delta T which interpolated with nodes of the table .
+     *
+     * @param julianDate the astronomical julian date
+     * @return estimated delta T value (seconds)
+     */
+    static double estimate(final double julianDate) {
+      final double x = (julianDate - since) / spacing;
+      if (!(x >= 0 && x < ((double) centuries) * nodes)) {
+        return DeltaT.estimate(julianDate);
+      }
+      final int k = (int) x;
+      final double[] n = centuryOf(k / nodes);
+      final int i = k % nodes;
+      final double f = x - k;
+      final double f0 = f + 1, f2 = f - 1, f3 = f - 2;
+
+      return ((f * f2 * f3) * -n[i] + (f0 * f2 * f3) * 3 * n[i + 1] - (f0 * f * f3) * 3 * n[i + 2] + (f0 * f * f2) * n[i + 3]) / 6.0;
+    }
+
+    /**
+     * returns nodes of the century, which computes if not yet .
+     *
+     * @param century the index of century in the table
+     * @return nodes of the century
+     */
+    private static double[] centuryOf(final int century) {
+      final double[] existing = table.get(century);
+      if (existing != null) {
+        return existing;
+      }
+      final double[] n = new double[nodes + 3];
+      for (int i = 0; i < n.length; i++) {
+        n[i] = smooth(since + (((long) century) * nodes + i - 1) * spacing);
+      }
+
+      return table.compareAndSet(century, null, n) ? n : table.get(century);
+    }
+
+    /**
+     * estimate Delta T at a continuous decimal year, which is not rounded to the middle of month .
+     *
+     * @param julianDate the astronomical julian date
+     * @return estimated delta T value (seconds)
+     */
+    static double smooth(final double julianDate) {
+      final double astronomicalYear = 2000 + (julianDate - (Deamtiet.j2000 - .5)) / daysOfMeanYear;
+      final double decimalYear = astronomicalYear < 1 ? astronomicalYear - 1 : astronomicalYear;
 
-      return n[2] + (n[3] * ut) + (n[4] * Math.pow(ut, 2)) + (n[5] * Math.pow(ut, 3)) + (n[6] * Math.pow(ut, 4)) + (n[7] * Math.pow(ut, 5)) + (n[8] * Math.pow(ut, 6)) + (n[9] * Math.pow(ut, 7));
+      return Formula.of(decimalYear).estimate(decimalYear);
     }
   }
 
@@ -130,8 +242,11 @@ public interface DeltaT {
    * @return estimated delta T value (seconds)
    */
   public static double estimate(final double julianDate) {
+    final long start = Telemetry.start();
     final double decimalYear = Astror.yearize(julianDate);
+    final double estimated = Formula.of(decimalYear).estimate(decimalYear);
+    Telemetry.Probe.DeltaT.record(start);
 
-    return Formula.of(decimalYear).estimate(decimalYear);
+    return estimated;
   }
 }
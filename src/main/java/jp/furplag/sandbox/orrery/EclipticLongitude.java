@@ -16,9 +16,20 @@
 package jp.furplag.sandbox.orrery;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jp.furplag.sandbox.stream.Streamr;
+import jp.furplag.sandbox.time.Deamtiet;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -88,6 +99,510 @@ public interface EclipticLongitude {
 
   /* @formatter:on */}
 
+  /**
+   * {@link Formula}s which flattened into primitive arrays ( structure of arrays ) .
+   * <p>
+   * evaluates the terms in the same order, and sums up those with the same compensated summation as {@link java.util.stream.DoubleStream#sum()} does,
+   * so that the result is exactly the same as the sum of each {@link Formula#estimate(double)} with {@link Cosine#Intrinsic} .
+   * </p>
+   *
+   * @author furplag
+   *
+   */
+  static final class Series implements Serializable {
+
+    /** the angular distance of a celestial object . */
+    final double[] amplitude;
+
+    /** the rate of change of angular position . */
+    final double[] angularVelocity;
+
+    /** an initial phase . */
+    final double[] initialPhase;
+
+    /** the group of terms which amplitude scaled by T ( {@link Formula.Exclusive} ) . */
+    final boolean[] exclusive;
+
+    /** the kernel of cosine . */
+    final Cosine cosine;
+
+    /** the count of instants to evaluate at once in {@link #estimate(double[], int, int)} . */
+    private static final int blockSize = 512;
+
+    Series(final Formula... formulas) {
+      this(Cosine.Intrinsic, formulas);
+    }
+
+    Series(final Cosine cosine, final Formula... formulas) {
+      this.cosine = Objects.requireNonNull(cosine);
+      final Formula[] terms = Streamr.stream(formulas).toArray(Formula[]::new);
+      amplitude = new double[terms.length];
+      angularVelocity = new double[terms.length];
+      initialPhase = new double[terms.length];
+      exclusive = new boolean[terms.length];
+      for (int i = 0; i < terms.length; i++) {
+        amplitude[i] = terms[i].amplitude;
+        angularVelocity[i] = terms[i].angularVelocity;
+        initialPhase[i] = terms[i].initialPhase;
+        exclusive[i] = terms[i] instanceof Formula.Exclusive;
+      }
+    }
+
+    /**
+     * returns the sum of the terms .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     * @return the sum of the terms
+     */
+    double estimate(final double terrestrialTime) {
+      double sum = 0, compensation = 0, simpleSum = 0;
+      for (int i = 0; i < amplitude.length; i++) {/* @formatter:off */
+        final double value = (exclusive[i] ? terrestrialTime * amplitude[i] : amplitude[i]) * cosine.cos((angularVelocity[i] * terrestrialTime) + initialPhase[i]);
+        final double compensated = value - compensation;
+        final double velvel = sum + compensated;
+        compensation = (velvel - sum) - compensated;
+        sum = velvel;
+        simpleSum += value;
+      /* @formatter:on */}
+      final double result = sum - compensation;
+
+      return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+    }
+
+    /**
+     * returns the sum of the terms for each of T, and overwrites it with the result .
+     * <p>
+     * evaluates term by term over a block of instants, so that the arguments of a term are computed in a simple loop
+     * which is able to vectorize, and the amplitude of a term stays in registers through the block .
+     * each of the results is exactly the same as {@link #estimate(double)} .
+     * </p>
+     *
+     * @param terrestrialTimes T (terrestrialized julian date), which to be overwritten with the sum of the terms
+     * @param offset the index of the first element
+     * @param length the count of elements
+     */
+    void estimate(final double[] terrestrialTimes, final int offset, final int length) {
+      final int block = Math.min(length, blockSize);
+      final double[] t = new double[block], argument = new double[block], sum = new double[block], compensation = new double[block], simpleSum = new double[block];
+      for (int from = offset; from < offset + length; from += block) {
+        final int n = Math.min(block, offset + length - from);
+        System.arraycopy(terrestrialTimes, from, t, 0, n);
+        Arrays.fill(sum, 0, n, 0);
+        Arrays.fill(compensation, 0, n, 0);
+        Arrays.fill(simpleSum, 0, n, 0);
+        for (int i = 0; i < amplitude.length; i++) {/* @formatter:off */
+          final double a = amplitude[i], w = angularVelocity[i], p = initialPhase[i];
+          final boolean x = exclusive[i];
+          for (int j = 0; j < n; j++) argument[j] = (w * t[j]) + p;
+          for (int j = 0; j < n; j++) {
+            final double value = (x ? t[j] * a : a) * cosine.cos(argument[j]);
+            final double compensated = value - compensation[j];
+            final double velvel = sum[j] + compensated;
+            compensation[j] = (velvel - sum[j]) - compensated;
+            sum[j] = velvel;
+            simpleSum[j] += value;
+          }
+        /* @formatter:on */}
+        for (int j = 0; j < n; j++) {
+          final double result = sum[j] - compensation[j];
+          terrestrialTimes[from + j] = Double.isNaN(result) && Double.isInfinite(simpleSum[j]) ? simpleSum[j] : result;
+        }
+      }
+    }
+
+    /**
+     * returns the sum of the terms and its derivative by T, in a single pass .
+     * <p>
+     * the derivative of each term is formed analytically alongside the value, with the sine which the kernel of cosine computes
+     * in the same reduction of the argument . the sum is exactly the same as {@link #estimate(double)} .
+     * </p>
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     * @param destination the array to store the sum, and the derivative ( degrees per julian century )
+     * @param offset the index of destination to store the sum
+     * @return destination
+     * @throws IndexOutOfBoundsException if the destination has no room for two values from offset
+     */
+    double[] estimate(final double terrestrialTime, final double[] destination, final int offset) {
+      Objects.checkFromIndexSize(offset, 2, destination.length);
+      final double[] cosAndSin = new double[2];
+      double sum = 0, compensation = 0, simpleSum = 0, rate = 0;
+      for (int i = 0; i < amplitude.length; i++) {/* @formatter:off */
+        cosine.cosAndSin((angularVelocity[i] * terrestrialTime) + initialPhase[i], cosAndSin, 0);
+        final double cos = cosAndSin[0], sin = cosAndSin[1];
+        final double value = (exclusive[i] ? terrestrialTime * amplitude[i] : amplitude[i]) * cos;
+        final double compensated = value - compensation;
+        final double velvel = sum + compensated;
+        compensation = (velvel - sum) - compensated;
+        sum = velvel;
+        simpleSum += value;
+        // d/dT ( a cos(wT + p) ) = -a w sin(wT + p), and d/dT ( T a cos(wT + p) ) = a cos(wT + p) - T a w sin(wT + p) .
+        final double slope = -(exclusive[i] ? terrestrialTime * amplitude[i] : amplitude[i]) * angularVelocity[i] * Astror.radianizr * sin;
+        rate += exclusive[i] ? amplitude[i] * cos + slope : slope;
+      /* @formatter:on */}
+      final double result = sum - compensation;
+      destination[offset] = Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+      destination[offset + 1] = rate;
+
+      return destination;
+    }
+
+    /**
+     * returns the count of terms .
+     *
+     * @return the count of terms
+     */
+    int size() {
+      return amplitude.length;
+    }
+  }
+
+  /**
+   * levels of precision, which evaluate only the terms those are necessary .
+   * <p>
+   * drops the periodic terms in ascending order of amplitude, while the sum of amplitudes which dropped fits in the budget,
+   * so that the longitude differs from the full series at most the budget ( degrees ) . the terms scaled by T
+   * ( {@link Formula.Exclusive} ) are never dropped .
+   * </p>
+   *
+   * @author furplag
+   *
+   */
+  static enum Precision {
+    /** all of the terms . */
+    Full(0),
+    /** within 0.01&deg; . */
+    Hundredth(.01),
+    /** within 0.1&deg; . */
+    Tenth(.1);
+
+    /** the maximum error ( degrees ) . */
+    @Getter
+    private final double budget;
+
+    private Precision(final double budget) {
+      this.budget = budget;
+    }
+
+    /**
+     * returns the formulas which fit in the budget, in the same order .
+     *
+     * @param formulas {@link Formula}s
+     * @return {@link Formula}s which fit in the budget
+     */
+    Formula[] truncate(final Formula[] formulas) {
+      final boolean[] dropped = new boolean[formulas.length];
+      final int[] periodic = IntStream.range(0, formulas.length).filter(i -> !(formulas[i] instanceof Formula.Exclusive)).boxed()
+        .sorted(Comparator.comparingDouble(i -> Math.abs(formulas[i].amplitude))).mapToInt(Integer::intValue).toArray();
+      double sum = 0;
+      for (int i : periodic) {
+        sum += Math.abs(formulas[i].amplitude);
+        if (sum > budget) {
+          break;
+        }
+        dropped[i] = true;
+      }
+
+      return IntStream.range(0, formulas.length).filter(i -> !dropped[i]).mapToObj(i -> formulas[i]).toArray(Formula[]::new);
+    }
+  }
+
+  /**
+   * the longitude of the planet which evaluates with the {@link Precision} and the {@link Cosine} .
+   *
+   * @author furplag
+   *
+   */
+  static final class Tuned implements EclipticLongitude {
+
+    /** the planet . */
+    @Getter
+    private final EclipticLongitude source;
+
+    /** the level of precision . */
+    @Getter
+    private final Precision precision;
+
+    /** {@link Formula}s which fit in the budget . */
+    @Getter
+    private final Formula[] formulas;
+
+    /** the {@link Series} of formulas . */
+    @Getter
+    private final Series series;
+
+    private Tuned(final EclipticLongitude source, final Precision precision, final Cosine cosine) {
+      this.source = source;
+      this.precision = Objects.requireNonNull(precision);
+      formulas = precision.truncate(source.getFormulas());
+      series = new Series(cosine, formulas);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public EclipticLongitude truncate(final Precision precision) {
+      return tune(source, precision, series.cosine);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public EclipticLongitude withCosine(final Cosine cosine) {
+      return tune(source, precision, cosine);
+    }
+
+    /**
+     * returns the longitude of the planet which evaluates with the {@link Precision} and the {@link Cosine} .
+     *
+     * @param source the planet
+     * @param precision the level of precision
+     * @param cosine the kernel of cosine
+     * @return the longitude of the planet
+     */
+    static EclipticLongitude tune(final EclipticLongitude source, final Precision precision, final Cosine cosine) {
+      return Objects.requireNonNull(precision) == Precision.Full && Objects.requireNonNull(cosine) == source.getSeries().cosine ? source : new Tuned(source, precision, cosine);
+    }
+  }
+
+  /**
+   * the consumer of longitudes in a range of julian dates .
+   *
+   * @author furplag
+   *
+   */
+  @FunctionalInterface
+  static interface Sink {
+
+    /**
+     * performs this operation on the longitude at a julian date .
+     *
+     * @param index the index of julian date in the range
+     * @param julianDate the astronomical julian date
+     * @param longitude longitude of the planet
+     */
+    void accept(long index, double julianDate, double longitude);
+  }
+
+  /**
+   * longitudes at julian dates in fixed step, which splits evenly by index for parallel streams and fork/join .
+   * <p>the julian date of the index is {@code start + index * step}, so that any of splits computes the same instants .</p>
+   *
+   * @author furplag
+   *
+   */
+  static final class Range implements Spliterator.OfDouble {
+
+    /** the count of instants to stop splitting . */
+    static final int threshold = 1 << 10;
+
+    /** the count of instants to compute at once . */
+    private static final int blockSize = 512;
+
+    /** the planet . */
+    private final EclipticLongitude planet;
+
+    /** the first julian date . */
+    private final double start;
+
+    /** days between julian dates . */
+    private final double step;
+
+    /** the index to compute next . */
+    private long index;
+
+    /** the index to stop ( exclusive ) . */
+    private final long fence;
+
+    private Range(final EclipticLongitude planet, final double start, final double step, final long index, final long fence) {
+      this.planet = planet;
+      this.start = start;
+      this.step = step;
+      this.index = index;
+      this.fence = fence;
+    }
+
+    /**
+     * longitudes at julian dates in fixed step .
+     *
+     * @param planet the planet
+     * @param start the first astronomical julian date ( inclusive )
+     * @param end the last astronomical julian date ( exclusive )
+     * @param step days between julian dates
+     * @return {@link Range}
+     * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+     */
+    public static Range of(final EclipticLongitude planet, final double start, final double end, final double step) {
+      return new Range(Objects.requireNonNull(planet), start, step, 0, fenceOf(start, end, step));
+    }
+
+    /**
+     * returns the count of julian dates which less than end, against the rounding error of division .
+     *
+     * @param start the first astronomical julian date ( inclusive )
+     * @param end the last astronomical julian date ( exclusive )
+     * @param step days between julian dates
+     * @return the count of julian dates
+     * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+     */
+    static long fenceOf(final double start, final double end, final double step) {
+      if (!(step > 0) || !Double.isFinite(start) || !Double.isFinite(end) || !Double.isFinite(step) || start + step == start || (end - start) / step >= Long.MAX_VALUE) {
+        throw new IllegalArgumentException(String.format("invalid range: [%s, %s) step %s .", start, end, step));
+      }
+
+      return countOf(start, end, step);
+    }
+
+    /**
+     * a part of {@link #fenceOf(double, double, double)} .
+     *
+     * @param start the first astronomical julian date ( inclusive )
+     * @param end the last astronomical julian date ( exclusive )
+     * @param step days between julian dates
+     * @return the count of julian dates
+     */
+    private static long countOf(final double start, final double end, final double step) {
+      long fence = end > start ? (long) Math.ceil((end - start) / step) : 0;
+      while (fence > 0 && start + (fence - 1) * step >= end) {
+        fence--;
+      }
+      while (start + fence * step < end) {
+        fence++;
+      }
+
+      return fence;
+    }
+
+    /**
+     * returns the julian date of the index .
+     *
+     * @param index the index of julian date in the range
+     * @return the astronomical julian date
+     */
+    public double julianDateOf(final long index) {
+      return start + index * step;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean tryAdvance(final DoubleConsumer action) {
+      return tryAdvance((Sink) (i, julianDate, longitude) -> action.accept(longitude));
+    }
+
+    /**
+     * performs the action for the next longitude, if exists .
+     *
+     * @param sink the action
+     * @return false if no remaining
+     */
+    public boolean tryAdvance(final Sink sink) {
+      Objects.requireNonNull(sink);
+      if (index >= fence) {
+        return false;
+      }
+      final double julianDate = julianDateOf(index);
+      sink.accept(index++, julianDate, planet.getLongitude(julianDate));
+
+      return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void forEachRemaining(final DoubleConsumer action) {
+      forEachRemaining((Sink) (i, julianDate, longitude) -> action.accept(longitude));
+    }
+
+    /**
+     * performs the action for each remaining longitudes, in order of julian date .
+     * <p>computes a block of longitudes at once with {@link EclipticLongitude#getLongitudes(double[], double[], int, int)} .</p>
+     *
+     * @param sink the action
+     */
+    public void forEachRemaining(final Sink sink) {
+      Objects.requireNonNull(sink);
+      final int block = (int) Math.min(Math.max(fence - index, 0), blockSize);
+      final double[] julianDates = new double[block], longitudes = new double[block];
+      while (index < fence) {
+        final long from = index;
+        final int n = (int) Math.min(block, fence - from);
+        for (int i = 0; i < n; i++) {
+          julianDates[i] = julianDateOf(from + i);
+        }
+        planet.getLongitudes(julianDates, longitudes, 0, n);
+        index = from + n;
+        for (int i = 0; i < n; i++) {
+          sink.accept(from + i, julianDates[i], longitudes[i]);
+        }
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Range trySplit() {
+      final long remaining = fence - index;
+      if (remaining < threshold * 2) {
+        return null;
+      }
+      final long middle = index + remaining / 2;
+      final Range prefix = new Range(planet, start, step, index, middle);
+      index = middle;
+
+      return prefix;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long estimateSize() {
+      return Math.max(fence - index, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+
+    /**
+     * performs the action for each remaining longitudes in parallel with fork/join .
+     *
+     * @param sink the action, which must be thread-safe for distinct indices
+     */
+    void forEachInParallel(final Sink sink) {
+      ForkJoinPool.commonPool().invoke(new Task(this, Objects.requireNonNull(sink)));
+    }
+
+    /**
+     * the task of fork/join, which splits the range until {@link Range#threshold} .
+     *
+     * @author furplag
+     *
+     */
+    private static final class Task extends RecursiveAction {
+
+      private static final long serialVersionUID = 1L;
+
+      /** the range to compute . */
+      private final transient Range range;
+
+      /** the action . */
+      private final transient Sink sink;
+
+      private Task(final Range range, final Sink sink) {
+        this.range = range;
+        this.sink = sink;
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      protected void compute() {
+        final Range prefix = range.trySplit();
+        if (prefix == null) {
+          range.forEachRemaining(sink);
+        } else {
+          invokeAll(new Task(prefix, sink), new Task(range, sink));
+        }
+      }
+    }
+  }
+
   /** the Moon. */
   static final EclipticLongitude Moon = new EclipticLongitude() {
     @Getter final Formula[] formulas = new Formula[] {
@@ -155,6 +670,7 @@ public interface EclipticLongitude {
       , new Formula(218.3162, 0.0, 0.0) {}
       , new Formula.Exclusive(481267.8809, 0.0, 0.0) {}
     };
+    @Getter final Series series = new Series(formulas);
   };
 
   /** the Sun. */
@@ -183,6 +699,7 @@ public interface EclipticLongitude {
       , new Formula(-0.0057, 0.0, 0.0) {}
       , new Formula(0.0048, 1934.0, 145.0) {}
     };
+    @Getter final Series series = new Series(formulas);
   };
 
   /**
@@ -201,6 +718,15 @@ public interface EclipticLongitude {
     return Streamr.stream(getFormulas());
   }
 
+  /**
+   * returns the {@link Formula}s as a {@link Series} .
+   *
+   * @return the {@link Series} to calculate
+   */
+  default Series getSeries() {
+    return new Series(getFormulas());
+  }
+
 
   /**
    * a part of {@link #getEclipticLongitude(double)} .
@@ -210,7 +736,7 @@ public interface EclipticLongitude {
    *         date
    */
   private double _calculate(final double terrestrialTime) {
-    return Astror.circulate(getFormulaAsStream().mapToDouble(f -> f.estimate(terrestrialTime)).sum());
+    return Astror.circulate(getSeries().estimate(terrestrialTime));
   }
 
   /**
@@ -221,6 +747,160 @@ public interface EclipticLongitude {
    *         date
    */
   default double getLongitude(final double julianDate) {
-    return Astror.circulate(_calculate(Astror.toTerrestrialTime(julianDate)));
+    final long start = Telemetry.start();
+    final double longitude = Astror.circulate(_calculate(Astror.toTerrestrialTime(julianDate)));
+    Telemetry.Probe.Longitude.record(start);
+
+    return longitude;
+  }
+
+  /**
+   * returns the longitude of the planet and its rate ( daily motion ) at a julian date, in a single pass over the terms .
+   * <p>
+   * the longitude is exactly the same as {@link #getLongitude(double)} . the rate is the derivative by T which scaled to days,
+   * so that the drift of Delta T ( at most about 1E-7 of the rate ) is ignored .
+   * </p>
+   *
+   * @param julianDate the astronomical julian date
+   * @param destination the array to store the longitude, and the rate ( degrees per day )
+   * @param offset the index of destination to store the longitude
+   * @return destination
+   * @throws IndexOutOfBoundsException if the destination has no room for two values from offset
+   */
+  default double[] getLongitudeAndRate(final double julianDate, final double[] destination, final int offset) {
+    final long start = Telemetry.start();
+    getSeries().estimate(Astror.toTerrestrialTime(julianDate), destination, offset);
+    destination[offset] = Astror.circulate(Astror.circulate(destination[offset]));
+    destination[offset + 1] /= Deamtiet.daysOfYearOfJulian * 100.0;
+    Telemetry.Probe.Longitude.record(start);
+
+    return destination;
+  }
+
+  /**
+   * returns the rate of the longitude of the planet ( daily motion ) at a julian date .
+   *
+   * @param julianDate the astronomical julian date
+   * @return the rate of the longitude ( degrees per day )
+   * @see #getLongitudeAndRate(double, double[], int)
+   */
+  default double getRate(final double julianDate) {
+    return getLongitudeAndRate(julianDate, new double[2], 0)[1];
+  }
+
+  /**
+   * returns the longitudes of the planet at each of julian dates that specified .
+   *
+   * @param julianDates the astronomical julian dates
+   * @param longitudes the array to store results, which must be at least as long as julianDates
+   * @return longitudes
+   * @see #getLongitude(double)
+   */
+  default double[] getLongitudes(final double[] julianDates, final double[] longitudes) {
+    return getLongitudes(julianDates, longitudes, 0, julianDates.length);
+  }
+
+  /**
+   * returns the longitudes of the planet at each of julian dates that specified .
+   * <p>the results are stored in the same range of julianDates, so the other elements of longitudes remain as it is .</p>
+   *
+   * @param julianDates the astronomical julian dates
+   * @param longitudes the array to store results
+   * @param offset the index of the first element
+   * @param length the count of elements
+   * @return longitudes
+   * @throws IndexOutOfBoundsException if the range is out of bounds of either julianDates or longitudes
+   * @see #getLongitude(double)
+   */
+  default double[] getLongitudes(final double[] julianDates, final double[] longitudes, final int offset, final int length) {
+    Objects.checkFromIndexSize(offset, length, julianDates.length);
+    Objects.checkFromIndexSize(offset, length, longitudes.length);
+    for (int i = offset; i < offset + length; i++) {
+      longitudes[i] = Astror.toTerrestrialTime(julianDates[i]);
+    }
+    getSeries().estimate(longitudes, offset, length);
+    for (int i = offset; i < offset + length; i++) {
+      longitudes[i] = Astror.circulate(Astror.circulate(longitudes[i]));
+    }
+
+    return longitudes;
+  }
+
+  /**
+   * returns the longitudes of the planet at julian dates in fixed step, from start ( inclusive ) to end ( exclusive ) .
+   * <p>the stream is sequential, and splits evenly by {@link java.util.stream.DoubleStream#parallel()} .</p>
+   *
+   * @param start the first astronomical julian date ( inclusive )
+   * @param end the last astronomical julian date ( exclusive )
+   * @param step days between julian dates
+   * @return the longitudes, in order of julian date
+   * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+   * @see #getLongitude(double)
+   */
+  default DoubleStream range(final double start, final double end, final double step) {
+    return StreamSupport.doubleStream(Range.of(this, start, end, step), false);
+  }
+
+  /**
+   * performs the action for the longitudes of the planet at julian dates in fixed step, in parallel with fork/join .
+   * <p>the action is called exactly once for each index, from any of threads, and not in order .</p>
+   *
+   * @param start the first astronomical julian date ( inclusive )
+   * @param end the last astronomical julian date ( exclusive )
+   * @param step days between julian dates
+   * @param sink the action, which must be thread-safe for distinct indices
+   * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+   * @see #range(double, double, double)
+   */
+  default void range(final double start, final double end, final double step, final Sink sink) {
+    Range.of(this, start, end, step).forEachInParallel(sink);
+  }
+
+  /**
+   * returns the iterator of the longitudes of the planet at julian dates in fixed step, which advances the terms with recurrence .
+   *
+   * @param start the first astronomical julian date ( inclusive )
+   * @param end the last astronomical julian date ( exclusive )
+   * @param step days between julian dates
+   * @return {@link Stepper}
+   * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+   * @see #range(double, double, double)
+   */
+  default Stepper stepper(final double start, final double end, final double step) {
+    return new Stepper(this, start, end, step);
+  }
+
+  /**
+   * returns the longitude of the planet which evaluates only the terms those are necessary for the precision .
+   * <p>creates new instance each time ( except {@link Precision#Full} ) , so keep it to use repeatedly .</p>
+   *
+   * @param precision the level of precision
+   * @return the longitude of the planet
+   */
+  default EclipticLongitude truncate(final Precision precision) {
+    return Tuned.tune(this, precision, getSeries().cosine);
+  }
+
+  /**
+   * returns the longitude of the planet which evaluates with the kernel of cosine .
+   * <p>creates new instance each time ( except the same kernel ) , so keep it to use repeatedly .</p>
+   *
+   * @param cosine the kernel of cosine
+   * @return the longitude of the planet
+   */
+  default EclipticLongitude withCosine(final Cosine cosine) {
+    return Tuned.tune(this, Precision.Full, cosine);
+  }
+
+  /**
+   * returns the longitude of the planet which memoized by julian date quantized in the resolution .
+   *
+   * @param resolution the resolution of julian date ( days )
+   * @param capacity the maximum count of entries
+   * @return {@link Memoized}
+   * @throws IllegalArgumentException if the resolution or the capacity is not positive
+   */
+  default Memoized memoize(final double resolution, final int capacity) {
+    return new Memoized(this, resolution, capacity);
   }
 }
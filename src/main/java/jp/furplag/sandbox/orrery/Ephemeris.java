@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.Getter;
+
+/**
+ * Ecliptic longitude which approximated with Chebyshev polynomials over fixed-length segments of T .
+ * <p>
+ * fits the sum of the series ( before circulating, so that it is smooth ) in each segment, and then evaluates with Clenshaw's recurrence
+ * instead of the sum of the cosine terms . out of the segments, simply falls back to the source .
+ * the coefficients are able to write into a file, and to read it with memory mapping .
+ * </p>
+ * <p>
+ * with the default segments ( {@value #sunSpan} days for the Sun, and {@value #moonSpan} days for the Moon ) ,
+ * the difference from the series is at most {@link #sunError} and {@link #moonError} degrees respectively .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Ephemeris implements EclipticLongitude {
+
+  /** days of a segment for the Sun . */
+  static final double sunSpan = 32;
+
+  /** count of coefficients in a segment for the Sun . */
+  static final int sunOrder = 12;
+
+  /** days of a segment for the Moon . */
+  static final double moonSpan = 4;
+
+  /** count of coefficients in a segment for the Moon . */
+  static final int moonOrder = 10;
+
+  /** the maximum difference ( degree ) from the series of the Sun, with the default segments . */
+  static final double sunError = 1E-8;
+
+  /** the maximum difference ( degree ) from the series of the Moon, with the default segments . */
+  static final double moonError = 1E-7;
+
+  /** the first julian date of default range ( about -0500-01-01 ) . */
+  static final double since = DeltaT.Grid.since;
+
+  /** the last julian date of default range ( about 3000-12-31 ) . */
+  static final double until = since + DeltaT.Grid.centuries * DeltaT.Grid.daysOfCentury;
+
+  /** the signature of the file, &quot;ORRERY&quot; and version . */
+  static final long magic = 0x4f52524552590001L;
+
+  /** the size of header of the file ( bytes ) . */
+  static final int headerSize = 40;
+
+  /** days of a julian century . */
+  private static final double daysOfCentury = Deamtiet.daysOfYearOfJulian * 100.0;
+
+  /** the longitude to approximate . */
+  @Getter
+  private final EclipticLongitude source;
+
+  /** T of the start of the first segment . */
+  @Getter
+  private final double origin;
+
+  /** the length of a segment in T . */
+  @Getter
+  private final double span;
+
+  /** count of coefficients in a segment . */
+  @Getter
+  private final int order;
+
+  /** count of segments . */
+  @Getter
+  private final int segments;
+
+  /** coefficients of Chebyshev polynomials, in order of segment, and degree . */
+  private final DoubleBuffer coefficients;
+
+  private Ephemeris(final EclipticLongitude source, final double origin, final double span, final int order, final int segments, final DoubleBuffer coefficients) {
+    this.source = source;
+    this.origin = origin;
+    this.span = span;
+    this.order = order;
+    this.segments = segments;
+    this.coefficients = coefficients;
+  }
+
+  /**
+   * fits Chebyshev polynomials to the longitude in the default range ( about -0500 - 3000 ) .
+   *
+   * @param source the longitude to approximate, {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @return {@link Ephemeris}
+   */
+  public static Ephemeris of(final EclipticLongitude source) {
+    return of(source, since, until);
+  }
+
+  /**
+   * fits Chebyshev polynomials to the longitude in the range, with the default segments .
+   *
+   * @param source the longitude to approximate, {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @param fromJulianDate the first astronomical julian date of the range
+   * @param toJulianDate the last astronomical julian date of the range
+   * @return {@link Ephemeris}
+   */
+  public static Ephemeris of(final EclipticLongitude source, final double fromJulianDate, final double toJulianDate) {
+    final boolean isSun = Objects.requireNonNull(source) == EclipticLongitude.Sun;
+
+    return of(source, isSun ? sunSpan : moonSpan, isSun ? sunOrder : moonOrder, fromJulianDate, toJulianDate);
+  }
+
+  /**
+   * fits Chebyshev polynomials to the longitude in the range .
+   *
+   * @param source the longitude to approximate
+   * @param days days of a segment
+   * @param order count of coefficients in a segment
+   * @param fromJulianDate the first astronomical julian date of the range
+   * @param toJulianDate the last astronomical julian date of the range
+   * @return {@link Ephemeris}
+   * @throws IllegalArgumentException if the segment is invalid, or the range is empty
+   */
+  public static Ephemeris of(final EclipticLongitude source, final double days, final int order, final double fromJulianDate, final double toJulianDate) {
+    final double span = days / daysOfCentury;
+    final double from = Astror.toTerrestrialTime(fromJulianDate), to = Astror.toTerrestrialTime(toJulianDate);
+    if (!(days > 0) || order < 1 || !(to > from)) {
+      throw new IllegalArgumentException(String.format("invalid segment: %s days, %d coefficients in [%s, %s] .", days, order, fromJulianDate, toJulianDate));
+    }
+    final double origin = Math.floor(from / span) * span;
+    final double segments = Math.ceil((to - origin) / span);
+    if (segments * order > Integer.MAX_VALUE - headerSize / Double.BYTES) {
+      throw new IllegalArgumentException(String.format("too many coefficients: %.0f segments of %d coefficients .", segments, order));
+    }
+    final EclipticLongitude.Series series = Objects.requireNonNull(source).getSeries();
+    final double[] coefficients = new double[((int) segments) * order];
+    IntStream.range(0, (int) segments).parallel().forEach(segment -> fit(series, origin + segment * span, span, coefficients, segment * order, order));
+
+    return new Ephemeris(source, origin, span, order, (int) segments, DoubleBuffer.wrap(coefficients));
+  }
+
+  /**
+   * reads the coefficients from the file with memory mapping .
+   *
+   * @param path the file which written by {@link #write(Path)}
+   * @param source the longitude which approximated
+   * @return {@link Ephemeris}
+   * @throws IOException if the file is unreadable, or is not an ephemeris
+   * @throws IllegalArgumentException if the file is not of the source
+   */
+  public static Ephemeris read(final Path path, final EclipticLongitude source) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.limit() < headerSize || buffer.getLong(0) != magic) {
+        throw new IOException(String.format("not an ephemeris: %s .", path));
+      }
+      final double origin = buffer.getDouble(8), span = buffer.getDouble(16);
+      final int order = buffer.getInt(24), segments = buffer.getInt(28), terms = buffer.getInt(32);
+      if (order < 1 || segments < 0 || buffer.limit() != headerSize + ((long) order) * segments * Double.BYTES) {
+        throw new IOException(String.format("broken ephemeris: %s .", path));
+      }
+      if (terms != Objects.requireNonNull(source).getSeries().size()) {
+        throw new IllegalArgumentException(String.format("the ephemeris is not of the source: %d terms, but %d .", terms, source.getSeries().size()));
+      }
+
+      return new Ephemeris(source, origin, span, order, segments, buffer.position(headerSize).slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+    }
+  }
+
+  /**
+   * writes the coefficients into the file, in little-endian .
+   *
+   * @param path the file to write
+   * @return path
+   * @throws IOException if an I/O error occurs
+   */
+  public Path write(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putLong(magic).putDouble(origin).putDouble(span).putInt(order).putInt(segments).putInt(source.getSeries().size()).putInt(0).flip();
+      channel.write(buffer);
+      final DoubleBuffer values = coefficients.duplicate().clear();
+      while (values.hasRemaining()) {
+        buffer.clear();
+        final int n = Math.min(values.remaining(), buffer.capacity() / Double.BYTES);
+        buffer.asDoubleBuffer().put(values.slice().limit(n));
+        values.position(values.position() + n);
+        buffer.limit(n * Double.BYTES);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    }
+
+    return path;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Formula[] getFormulas() {
+    return source.getFormulas();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Series getSeries() {
+    return source.getSeries();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getLongitude(final double julianDate) {
+    final long start = Telemetry.start();
+    final double longitude = Astror.circulate(Astror.circulate(estimate(Astror.toTerrestrialTime(julianDate))));
+    Telemetry.Probe.Longitude.record(start);
+
+    return longitude;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double[] getLongitudes(final double[] julianDates, final double[] longitudes, final int offset, final int length) {
+    Objects.checkFromIndexSize(offset, length, julianDates.length);
+    Objects.checkFromIndexSize(offset, length, longitudes.length);
+    for (int i = offset; i < offset + length; i++) {
+      longitudes[i] = getLongitude(julianDates[i]);
+    }
+
+    return longitudes;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double[] getLongitudeAndRate(final double julianDate, final double[] destination, final int offset) {
+    final long start = Telemetry.start();
+    estimate(Astror.toTerrestrialTime(julianDate), destination, offset);
+    destination[offset] = Astror.circulate(Astror.circulate(destination[offset]));
+    destination[offset + 1] /= daysOfCentury;
+    Telemetry.Probe.Longitude.record(start);
+
+    return destination;
+  }
+
+  /**
+   * returns the sum of the series ( not circulated ) which approximated .
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   * @return the sum of the series
+   */
+  double estimate(final double terrestrialTime) {
+    final double x = (terrestrialTime - origin) / span;
+    if (!(x >= 0 && x < segments)) {
+      return source.getSeries().estimate(terrestrialTime);
+    }
+    final int segment = (int) x;
+    final int first = segment * order;
+    final double u = 2 * (x - segment) - 1, u2 = u * 2;
+    double b1 = 0, b2 = 0;
+    for (int i = order - 1; i > 0; i--) {
+      final double b0 = u2 * b1 - b2 + coefficients.get(first + i);
+      b2 = b1;
+      b1 = b0;
+    }
+
+    return u * b1 - b2 + coefficients.get(first);
+  }
+
+  /**
+   * returns the sum of the series ( not circulated ) which approximated, and its derivative by T .
+   * <p>the derivative of T<sub>n</sub> is nU<sub>n-1</sub>, those are computed with the forward recurrence of Chebyshev polynomials of the second kind .</p>
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   * @param destination the array to store the sum, and the derivative ( degrees per julian century )
+   * @param offset the index of destination to store the sum
+   * @return destination
+   * @throws IndexOutOfBoundsException if the destination has no room for two values from offset
+   */
+  double[] estimate(final double terrestrialTime, final double[] destination, final int offset) {
+    Objects.checkFromIndexSize(offset, 2, destination.length);
+    final double x = (terrestrialTime - origin) / span;
+    if (!(x >= 0 && x < segments)) {
+      return source.getSeries().estimate(terrestrialTime, destination, offset);
+    }
+    final int segment = (int) x;
+    final int first = segment * order;
+    final double u = 2 * (x - segment) - 1;
+    double derivative = 0, u0 = 0, u1 = 1;
+    for (int i = 1; i < order; i++) {
+      derivative += i * coefficients.get(first + i) * u1;
+      final double u2 = 2 * u * u1 - u0;
+      u0 = u1;
+      u1 = u2;
+    }
+    destination[offset] = estimate(terrestrialTime);
+    destination[offset + 1] = derivative * 2 / span;
+
+    return destination;
+  }
+
+  /**
+   * fits a Chebyshev polynomial to the series in a segment, by interpolation at Chebyshev nodes .
+   *
+   * @param series the series
+   * @param start T of the start of the segment
+   * @param span the length of the segment in T
+   * @param coefficients the array to store the result
+   * @param offset the index to store the result
+   * @param order count of coefficients
+   */
+  private static void fit(final EclipticLongitude.Series series, final double start, final double span, final double[] coefficients, final int offset, final int order) {
+    final double[] values = new double[order];
+    for (int j = 0; j < order; j++) {
+      values[j] = series.estimate(start + span * (Math.cos(Math.PI * (j + .5) / order) + 1) / 2);
+    }
+    for (int i = 0; i < order; i++) {
+      double sum = 0;
+      for (int j = 0; j < order; j++) {
+        sum += values[j] * Math.cos(Math.PI * i * (j + .5) / order);
+      }
+      coefficients[offset + i] = sum * (i == 0 ? 1.0 : 2.0) / order;
+    }
+  }
+}
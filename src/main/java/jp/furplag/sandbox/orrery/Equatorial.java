@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.Getter;
+
+/**
+ * conversion from the ecliptic coordinates of date to the equatorial coordinates of date .
+ * <p>
+ * the obliquity of the ecliptic is the mean obliquity ( IAU 1980 ) , and all angles are in degrees .
+ * the longitudes of {@link EclipticLongitude#Sun} and {@link EclipticLongitude#Moon} are of date already, so that convert those without {@link Precession} .
+ * the apparent positions add {@link Nutation} which cached by quantized T, and the latitude of the Moon .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Equatorial {
+
+  /** coefficients of the mean obliquity of the ecliptic ( arcseconds, in order of the power of T ) . */
+  static final double[] constOfObliquity = {84381.448, -46.8150, -0.00059, 0.001813};
+
+  /**
+   * coefficients of the latitude of the Moon ( degrees, and multipliers of D, M, M' and F ) , the principal terms of Meeus, Astronomical Algorithms, table 47.B .
+   * <p>the terms which dropped are less than 0.004&deg; each, so that the latitude differs at most about 0.01&deg; .</p>
+   */
+  private static final double[][] constOfLatitude = {/* @formatter:off */
+      {5.128122, 0, 0, 0, 1}, {0.280602, 0, 0, 1, 1}, {0.277693, 0, 0, 1, -1}, {0.173237, 2, 0, 0, -1}
+    , {0.055413, 2, 0, -1, 1}, {0.046271, 2, 0, -1, -1}, {0.032573, 2, 0, 0, 1}, {0.017198, 0, 0, 2, 1}
+    , {0.009266, 2, 0, 1, -1}, {0.008822, 0, 0, 2, -1}, {0.008216, 2, -1, 0, -1}, {0.004324, 2, 0, -2, -1}
+    , {0.004200, 2, 0, 1, 1}
+  /* @formatter:on */};
+
+  /**
+   * nutation in longitude and in obliquity ( the truncated series of IAU 1980, Meeus, Astronomical Algorithms, chapter 22 ) .
+   * <p>
+   * differs at most about 0.5 arcseconds in longitude and 0.1 arcseconds in obliquity . the series of {@link EclipticLongitude#Sun}
+   * and {@link EclipticLongitude#Moon} contain the principal term of nutation in longitude already, so that those add only the rest of terms
+   * ( {@link #getResidual()} ) .
+   * </p>
+   *
+   * @author furplag
+   *
+   */
+  @Getter
+  public static final class Nutation {
+
+    /** the unit of T to quantize in {@link #of(double)} ( about 50 minutes, so the nutation differs at most about 0.002 arcseconds ) . */
+    static final double quantum = 1.0 / (1 << 20);
+
+    /** the maximum count of nutations to cache . */
+    static final int capacity = 1 << 10;
+
+    /** nutations which cached by quantized T . */
+    private static final Map<Long, Nutation> nutations = Collections.synchronizedMap(new Lru<>(capacity));
+
+    /** T (terrestrialized julian date) . */
+    private final double terrestrialTime;
+
+    /** nutation in longitude ( degrees ) . */
+    private final double longitude;
+
+    /** nutation in obliquity ( degrees ) . */
+    private final double obliquity;
+
+    /** nutation in longitude except the principal term ( degrees ) . */
+    private final double residual;
+
+    /** the true obliquity of the ecliptic, the mean obliquity plus nutation ( degrees ) . */
+    private final double trueObliquity;
+
+    /**
+     * the nutation at a terrestrial time .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     */
+    public Nutation(final double terrestrialTime) {
+      this.terrestrialTime = terrestrialTime;
+      final double omega = (125.04452 - 1934.136261 * terrestrialTime) * Astror.radianizr;
+      final double sun = (280.4665 + 36000.7698 * terrestrialTime) * Astror.radianizr * 2;
+      final double moon = (218.3165 + 481267.8813 * terrestrialTime) * Astror.radianizr * 2;
+      final double principal = -17.20 * Math.sin(omega);
+      residual = (-1.32 * Math.sin(sun) - 0.23 * Math.sin(moon) + 0.21 * Math.sin(omega * 2)) / 3600.0;
+      longitude = principal / 3600.0 + residual;
+      obliquity = (9.20 * Math.cos(omega) + 0.57 * Math.cos(sun) + 0.10 * Math.cos(moon) - 0.09 * Math.cos(omega * 2)) / 3600.0;
+      trueObliquity = obliquityOf(terrestrialTime) + obliquity;
+    }
+
+    /**
+     * returns the nutation at the terrestrial time which quantized by {@link #quantum}, from the cache if exists .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     * @return {@link Nutation}
+     */
+    public static Nutation of(final double terrestrialTime) {
+      final long key = Math.round(terrestrialTime / quantum);
+      final Nutation nutation = nutations.get(key);
+      Telemetry.Cache.Nutation.record(nutation != null);
+      if (nutation != null) {
+        return nutation;
+      }
+      final Nutation computed = new Nutation(key * quantum);
+      nutations.put(key, computed);
+
+      return computed;
+    }
+  }
+
+  /** no need to instantiate . */
+  private Equatorial() {}
+
+  /**
+   * returns the mean obliquity of the ecliptic .
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   * @return the mean obliquity of the ecliptic ( degrees )
+   */
+  public static double obliquityOf(final double terrestrialTime) {
+    return (constOfObliquity[0] + terrestrialTime * (constOfObliquity[1] + terrestrialTime * (constOfObliquity[2] + terrestrialTime * constOfObliquity[3]))) / 3600.0;
+  }
+
+  /**
+   * stores the equatorial coordinates into the array, the right ascension at the offset and the declination at the next .
+   *
+   * @param longitude the ecliptic longitude
+   * @param latitude the ecliptic latitude
+   * @param obliquity the obliquity of the ecliptic
+   * @param destination the array to store the result
+   * @param offset the index to store the right ascension
+   * @return destination
+   * @throws IndexOutOfBoundsException if the destination has no room for the result
+   */
+  public static double[] of(final double longitude, final double latitude, final double obliquity, final double[] destination, final int offset) {
+    Objects.checkFromIndexSize(offset, 2, destination.length);
+    final double lambda = longitude * Astror.radianizr, beta = latitude * Astror.radianizr, epsilon = obliquity * Astror.radianizr;
+    final double sineOfBeta = Math.sin(beta), cosineOfBeta = Math.cos(beta);
+    final double sineOfEpsilon = Math.sin(epsilon), cosineOfEpsilon = Math.cos(epsilon);
+    final double sineOfLambda = Math.sin(lambda);
+    destination[offset] = Astror.circulate(Math.atan2(sineOfLambda * cosineOfBeta * cosineOfEpsilon - sineOfBeta * sineOfEpsilon, Math.cos(lambda) * cosineOfBeta) * Astror.degreezr);
+    destination[offset + 1] = Math.asin(sineOfBeta * cosineOfEpsilon + cosineOfBeta * sineOfEpsilon * sineOfLambda) * Astror.degreezr;
+
+    return destination;
+  }
+
+  /**
+   * stores the equatorial coordinates of the Sun at the moment into the array .
+   * <p>the latitude of the Sun is less than an arcsecond, so that regards as zero .</p>
+   *
+   * @param moment {@link Moment}
+   * @param destination the array to store the result
+   * @param offset the index to store the right ascension
+   * @return destination
+   * @throws IndexOutOfBoundsException if the destination has no room for the result
+   */
+  public static double[] ofSun(final Moment moment, final double[] destination, final int offset) {
+    return of(moment.getSun(), 0, obliquityOf(moment.getTerrestrialTime()), destination, offset);
+  }
+
+  /**
+   * returns the ecliptic latitude of the Moon .
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   * @return the ecliptic latitude of the Moon ( degrees )
+   */
+  public static double latitudeOfMoon(final double terrestrialTime) {
+    final double d = (297.8501921 + 445267.1114034 * terrestrialTime) * Astror.radianizr;
+    final double m = (357.5291092 + 35999.0502909 * terrestrialTime) * Astror.radianizr;
+    final double mm = (134.9633964 + 477198.8675055 * terrestrialTime) * Astror.radianizr;
+    final double f = (93.2720950 + 483202.0175233 * terrestrialTime) * Astror.radianizr;
+    // the eccentricity of the orbit of the Earth, which scales the terms of M .
+    final double e = 1 - terrestrialTime * (0.002516 + terrestrialTime * 0.0000074);
+    double latitude = 0;
+    for (double[] term : constOfLatitude) {
+      latitude += term[0] * (term[2] == 0 ? 1 : e) * Math.sin(term[1] * d + term[2] * m + term[3] * mm + term[4] * f);
+    }
+
+    return latitude;
+  }
+
+  /**
+   * stores the apparent equatorial coordinates of the Sun or the Moon at a julian date into the array .
+   *
+   * @param planet either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @param julianDate the astronomical julian date
+   * @param destination the array to store the result
+   * @param offset the index to store the right ascension
+   * @return destination
+   * @throws IllegalArgumentException if the planet is neither the Sun nor the Moon
+   * @throws IndexOutOfBoundsException if the destination has no room for the result
+   */
+  public static double[] apparentOf(final EclipticLongitude planet, final double julianDate, final double[] destination, final int offset) {
+    return apparentOf(planet, Moment.of(julianDate), destination, offset);
+  }
+
+  /**
+   * stores the apparent equatorial coordinates of the Sun or the Moon at the moment into the array .
+   *
+   * @param planet either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @param moment {@link Moment}
+   * @param destination the array to store the result
+   * @param offset the index to store the right ascension
+   * @return destination
+   * @throws IllegalArgumentException if the planet is neither the Sun nor the Moon
+   * @throws IndexOutOfBoundsException if the destination has no room for the result
+   */
+  public static double[] apparentOf(final EclipticLongitude planet, final Moment moment, final double[] destination, final int offset) {
+    return apparentOf(planet, moment, Nutation.of(moment.getTerrestrialTime()), destination, offset);
+  }
+
+  /**
+   * stores the apparent equatorial coordinates of the Sun or the Moon at each of julian dates into the array .
+   * <p>
+   * the results are pairs of the right ascension and the declination ( a<sub>0</sub>, d<sub>0</sub>, a<sub>1</sub>, d<sub>1</sub>, ... ) ,
+   * and each result is exactly the same as {@link #apparentOf(EclipticLongitude, double, double[], int)} . the nutation is looked up
+   * only if the quantized T changes from the previous instant .
+   * </p>
+   *
+   * @param planet either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @param julianDates the astronomical julian dates
+   * @param destination the array to store the results
+   * @return destination
+   * @throws IllegalArgumentException if the planet is neither the Sun nor the Moon
+   * @throws IndexOutOfBoundsException if the destination is shorter than twice the julian dates
+   */
+  public static double[] apparentOf(final EclipticLongitude planet, final double[] julianDates, final double[] destination) {
+    Objects.checkFromIndexSize(0, Math.multiplyExact(julianDates.length, 2), destination.length);
+    Nutation nutation = null;
+    for (int i = 0; i < julianDates.length; i++) {
+      final Moment moment = Moment.of(julianDates[i]);
+      if (nutation == null || Math.round(moment.getTerrestrialTime() / Nutation.quantum) != Math.round(nutation.getTerrestrialTime() / Nutation.quantum)) {
+        nutation = Nutation.of(moment.getTerrestrialTime());
+      }
+      apparentOf(planet, moment, nutation, destination, i * 2);
+    }
+
+    return destination;
+  }
+
+  /**
+   * a part of {@link #apparentOf(EclipticLongitude, Moment, double[], int)} .
+   *
+   * @param planet either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon}
+   * @param moment {@link Moment}
+   * @param nutation {@link Nutation} at the moment
+   * @param destination the array to store the result
+   * @param offset the index to store the right ascension
+   * @return destination
+   */
+  private static double[] apparentOf(final EclipticLongitude planet, final Moment moment, final Nutation nutation, final double[] destination, final int offset) {
+    if (planet != EclipticLongitude.Sun && planet != EclipticLongitude.Moon) {
+      throw new IllegalArgumentException("planet must be either the Sun or the Moon: " + planet);
+    }
+    final double latitude = planet == EclipticLongitude.Moon ? latitudeOfMoon(moment.getTerrestrialTime()) : 0;
+
+    return of(moment.getLongitude(planet) + nutation.getResidual(), latitude, nutation.getTrueObliquity(), destination, offset);
+  }
+}
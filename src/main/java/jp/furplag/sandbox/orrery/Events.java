@@ -0,0 +1,398 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * the index of astronomical events ( solar terms and principal phases of the Moon ) , in order of the instant .
+ * <p>
+ * each event is a pair of the julian date and the code of event ( 0 - 23: solar terms by the longitude of the Sun divided by 15&deg;,
+ * {@value #phases} - 27: principal phases of the Moon in order of {@link LunarPhase.Phase} ) , so that lookups are binary searches over primitives
+ * instead of finding the root . the index is able to write into a file, and to read it with memory mapping .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Events {
+
+  /** the code of the first principal phase of the Moon . */
+  public static final int phases = 24;
+
+  /** the first julian date of default range ( about -0500-01-01 ) . */
+  static final double since = Ephemeris.since;
+
+  /** the last julian date of default range ( about 3000-12-31 ) . */
+  static final double until = Ephemeris.until;
+
+  /** the signature of the file, &quot;ORRERY&quot; , &quot;E&quot; and version . */
+  static final long magic = 0x4f52524552594501L;
+
+  /** the size of header of the file ( bytes ) . */
+  static final int headerSize = 32;
+
+  /** days of a range which searches events at once . */
+  private static final double daysOfChunk = 365.25;
+
+  /** days to search beyond the range, so that events around the border are never missed . */
+  private static final double margin = 2.0;
+
+  /**
+   * an astronomical event .
+   *
+   * @author furplag
+   *
+   */
+  @Value
+  public static class Event {
+
+    /** the astronomical julian date . */
+    double julianDate;
+
+    /** the code of event . */
+    int code;
+
+    /**
+     * returns whether the event is a solar term, or not .
+     *
+     * @return true if the event is a solar term
+     */
+    public boolean isSolarTerm() {
+      return code < phases;
+    }
+
+    /**
+     * returns the longitude of the Sun of the solar term .
+     *
+     * @return the longitude of the Sun, or NaN if the event is not a solar term
+     */
+    public double getLongitude() {
+      return isSolarTerm() ? code * 15.0 : Double.NaN;
+    }
+
+    /**
+     * returns the principal phase of the Moon .
+     *
+     * @return the principal phase of the Moon, or null if the event is a solar term
+     */
+    public LunarPhase.Phase getPhase() {
+      return isSolarTerm() ? null : LunarPhase.Phase.values()[code - phases];
+    }
+  }
+
+  /** the first julian date of the range . */
+  @Getter
+  private final double from;
+
+  /** the last julian date of the range . */
+  @Getter
+  private final double to;
+
+  /** julian dates of events, in ascending order . */
+  private final DoubleBuffer julianDates;
+
+  /** codes of events . */
+  private final ByteBuffer codes;
+
+  private Events(final double from, final double to, final DoubleBuffer julianDates, final ByteBuffer codes) {
+    this.from = from;
+    this.to = to;
+    this.julianDates = julianDates;
+    this.codes = codes;
+  }
+
+  /**
+   * finds events in the default range ( about -0500 - 3000 ) .
+   *
+   * @return {@link Events}
+   */
+  public static Events of() {
+    return of(since, until);
+  }
+
+  /**
+   * finds events in the range, by chunks of a year in parallel .
+   *
+   * @param fromJulianDate the first astronomical julian date of the range ( inclusive )
+   * @param toJulianDate the last astronomical julian date of the range ( exclusive )
+   * @return {@link Events}
+   * @throws IllegalArgumentException if the range is empty, or not finite
+   */
+  public static Events of(final double fromJulianDate, final double toJulianDate) {
+    if (!(toJulianDate > fromJulianDate) || !Double.isFinite(fromJulianDate) || !Double.isFinite(toJulianDate)) {
+      throw new IllegalArgumentException(String.format("invalid range: [%s, %s) .", fromJulianDate, toJulianDate));
+    }
+    final SolarTerm solarTerm = new SolarTerm();
+    final LunarPhase lunarPhase = new LunarPhase();
+    final int chunks = (int) Math.ceil((toJulianDate - fromJulianDate) / daysOfChunk);
+    final List<Event> events = IntStream.range(0, chunks).parallel().mapToObj(i -> {/* @formatter:off */
+      final double from = fromJulianDate + i * daysOfChunk;
+
+      return search(solarTerm, lunarPhase, from - margin, Math.min(from + daysOfChunk, toJulianDate) + margin);
+    /* @formatter:on */}).flatMap(List::stream).sorted(Comparator.comparingDouble(Event::getJulianDate)).collect(Collectors.toList());
+    // events in margins are found twice, which differ within the tolerance .
+    final List<Event> distinct = new ArrayList<>();
+    for (Event event : events) {
+      if (event.julianDate < fromJulianDate || event.julianDate >= toJulianDate || isDuplicate(distinct, event)) {
+        continue;
+      }
+      distinct.add(event);
+    }
+    final double[] julianDates = new double[distinct.size()];
+    final byte[] codes = new byte[distinct.size()];
+    for (int i = 0; i < julianDates.length; i++) {
+      julianDates[i] = distinct.get(i).julianDate;
+      codes[i] = (byte) distinct.get(i).code;
+    }
+
+    return new Events(fromJulianDate, toJulianDate, DoubleBuffer.wrap(julianDates), ByteBuffer.wrap(codes));
+  }
+
+  /**
+   * reads the index from the file with memory mapping .
+   *
+   * @param path the file which written by {@link #write(Path)}
+   * @return {@link Events}
+   * @throws IOException if the file is unreadable, or is not an index of events
+   */
+  public static Events read(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.limit() < headerSize || buffer.getLong(0) != magic) {
+        throw new IOException(String.format("not an index of events: %s .", path));
+      }
+      final double from = buffer.getDouble(8), to = buffer.getDouble(16);
+      final int size = buffer.getInt(24);
+      if (size < 0 || buffer.limit() != headerSize + ((long) size) * (Double.BYTES + 1)) {
+        throw new IOException(String.format("broken index of events: %s .", path));
+      }
+      final int codes = headerSize + size * Double.BYTES;
+
+      return new Events(from, to, buffer.slice().position(headerSize).limit(codes).slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer(), buffer.slice().position(codes).slice());
+    }
+  }
+
+  /**
+   * writes the index into the file, in little-endian .
+   *
+   * @param path the file to write
+   * @return path
+   * @throws IOException if an I/O error occurs
+   */
+  public Path write(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(headerSize + size() * (Double.BYTES + 1)).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putLong(magic).putDouble(from).putDouble(to).putInt(size()).putInt(0);
+      buffer.asDoubleBuffer().put(julianDates.duplicate().clear());
+      buffer.position(headerSize + size() * Double.BYTES).put(codes.duplicate().clear()).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+
+    return path;
+  }
+
+  /**
+   * returns the count of events .
+   *
+   * @return the count of events
+   */
+  public int size() {
+    return julianDates.limit();
+  }
+
+  /**
+   * returns the event .
+   *
+   * @param index the index of event
+   * @return {@link Event}
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Event get(final int index) {
+    return new Event(julianDates.get(index), codes.get(index));
+  }
+
+  /**
+   * returns the first event after the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @return {@link Event}, or null if not in the range
+   */
+  public Event next(final double julianDate) {
+    final int index = indexOf(julianDate);
+
+    return index < size() ? get(index) : null;
+  }
+
+  /**
+   * returns the first principal phase of the Moon after the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @param phase the principal phase of the Moon
+   * @return {@link Event}, or null if not in the range
+   */
+  public Event next(final double julianDate, final LunarPhase.Phase phase) {
+    for (int i = indexOf(julianDate); i < size(); i++) {
+      if (codes.get(i) == phases + phase.ordinal()) {
+        return get(i);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * returns the last event before the instant ( inclusive ) .
+   *
+   * @param julianDate the astronomical julian date
+   * @return {@link Event}, or null if not in the range
+   */
+  public Event previous(final double julianDate) {
+    final int index = indexOf(julianDate) - 1;
+
+    return index < 0 ? null : get(index);
+  }
+
+  /**
+   * returns the last principal phase of the Moon before the instant ( inclusive ) .
+   *
+   * @param julianDate the astronomical julian date
+   * @param phase the principal phase of the Moon
+   * @return {@link Event}, or null if not in the range
+   */
+  public Event previous(final double julianDate, final LunarPhase.Phase phase) {
+    for (int i = indexOf(julianDate) - 1; i > -1; i--) {
+      if (codes.get(i) == phases + phase.ordinal()) {
+        return get(i);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * returns events in the range .
+   *
+   * @param fromJulianDate the first astronomical julian date ( exclusive )
+   * @param toJulianDate the last astronomical julian date ( inclusive )
+   * @return events in the range, in order of the instant
+   */
+  public List<Event> range(final double fromJulianDate, final double toJulianDate) {
+    return IntStream.range(indexOf(fromJulianDate), Math.max(indexOf(fromJulianDate), indexOf(toJulianDate))).mapToObj(this::get).collect(Collectors.toList());
+  }
+
+  /**
+   * returns the age of the Moon, days from the last new moon .
+   * <p>finds the new moon with {@link LunarPhase}, if the index does not cover the instant .</p>
+   *
+   * @param julianDate the astronomical julian date
+   * @return the age of the Moon ( in days )
+   */
+  public double ageOfMoon(final double julianDate) {
+    final Event newMoon = julianDate < to ? previous(julianDate, LunarPhase.Phase.New) : null;
+    if (newMoon != null) {
+      return julianDate - newMoon.julianDate;
+    }
+    final LunarPhase lunarPhase = new LunarPhase();
+    double last = lunarPhase.next(julianDate - LunarPhase.synodicMonth - 1, LunarPhase.Phase.New);
+    for (double next = lunarPhase.next(last, LunarPhase.Phase.New); next <= julianDate; next = lunarPhase.next(last, LunarPhase.Phase.New)) {
+      last = next;
+    }
+
+    return julianDate - last;
+  }
+
+  /**
+   * returns the index of the first event after the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @return the index of the first event after the instant, or {@link #size()} if not exists
+   */
+  int indexOf(final double julianDate) {
+    int low = 0, high = size();
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (julianDates.get(middle) <= julianDate) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * finds events in the range .
+   *
+   * @param solarTerm the finder of solar terms
+   * @param lunarPhase the finder of principal phases of the Moon
+   * @param fromJulianDate the first astronomical julian date ( inclusive )
+   * @param toJulianDate the last astronomical julian date ( exclusive )
+   * @return events in the range
+   */
+  private static List<Event> search(final SolarTerm solarTerm, final LunarPhase lunarPhase, final double fromJulianDate, final double toJulianDate) {
+    final List<Event> events = new ArrayList<>();
+    final double longitude = EclipticLongitude.Sun.getLongitude(fromJulianDate);
+    double target = (Math.floor(longitude / 15.0) + 1) * 15.0;
+    for (double julianDate = solarTerm.of(target, fromJulianDate + (target - longitude) / SolarTerm.rate); julianDate < toJulianDate; julianDate = solarTerm.of(target, julianDate + SolarTerm.interval)) {
+      if (julianDate >= fromJulianDate) {
+        events.add(new Event(julianDate, ((int) Math.round(Astror.circulate(target) / 15.0)) % phases));
+      }
+      target += 15.0;
+    }
+    LunarPhase.Phase phase = lunarPhase.upcoming(fromJulianDate);
+    for (double julianDate = lunarPhase.next(fromJulianDate, phase); julianDate < toJulianDate; julianDate = lunarPhase.next(julianDate, phase)) {
+      events.add(new Event(julianDate, phases + phase.ordinal()));
+      phase = LunarPhase.Phase.values()[(phase.ordinal() + 1) % 4];
+    }
+
+    return events;
+  }
+
+  /**
+   * returns whether the same event is already found, or not .
+   *
+   * @param events events in order of the instant
+   * @param event the event
+   * @return true if the same event is already found
+   */
+  private static boolean isDuplicate(final List<Event> events, final Event event) {
+    for (int i = events.size() - 1; i > -1 && event.julianDate - events.get(i).julianDate < 1.0; i--) {
+      if (events.get(i).code == event.code) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
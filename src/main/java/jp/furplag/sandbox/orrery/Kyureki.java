@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * the date in Japanese lunisolar calendar ( Kyureki ) .
+ * <p>
+ * each month starts at the day of new moon, and the month which contains the winter solstice is the eleventh .
+ * a month which contains no principal term ( Chuki ) is the leap month,
+ * if there are 13 months from the eleventh to the next eleventh ( the first one, if there are two or more ) .
+ * days are counted in Japan Standard Time ( UTC+9 ) as the references of NAO .
+ * </p>
+ * <p>
+ * the start days of months from the eleventh to the next are computed once for each, and stored in a bounded cache,
+ * so that converting a date costs only a binary search .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Kyureki {
+
+  /**
+   * the start days of months from the eleventh, to the next eleventh ( Sui ) .
+   *
+   * @author furplag
+   *
+   */
+  static final class Table {
+
+    /** the year of Gregorian calendar which the Sui ends in . */
+    final int year;
+
+    /** the start days of months ( epoch days ), and the start day of the next eleventh month at last . */
+    final int[] starts;
+
+    /** the number of months ( negative if leap ) . */
+    final int[] months;
+
+    /** the index of the first month . */
+    final int first;
+
+    Table(final int year) {
+      this.year = year;
+      final double[] principalTerms = IntStream.rangeClosed(0, 12).mapToDouble(i -> solarTerm.of(270.0 + (i * 30.0), julianDateOf(LocalDate.of(year - 1, 12, 22).plusDays(Math.round(i * 30.44))))).toArray();
+      final int[] newMoons = Arrays.stream(lunarPhase.newMoons(principalTerms[0] - 31.0, principalTerms[12] + 1.0)).mapToInt(Kyureki::epochDayOf).toArray();
+      final int since = lastIndexOf(newMoons, epochDayOf(principalTerms[0]));
+      starts = Arrays.copyOfRange(newMoons, since, lastIndexOf(newMoons, epochDayOf(principalTerms[12])) + 1);
+      final int leap = starts.length < 14 ? -1 : IntStream.range(0, 13).filter(i -> Arrays.stream(principalTerms).mapToInt(Kyureki::epochDayOf).noneMatch(d -> starts[i] <= d && d < starts[i + 1])).findFirst().orElse(-1);
+      months = new int[starts.length - 1];
+      months[0] = 11;
+      for (int i = 1; i < months.length; i++) {
+        months[i] = i == leap ? -Math.abs(months[i - 1]) : (Math.abs(months[i - 1]) % 12) + 1;
+      }
+      first = IntStream.range(0, months.length).filter(i -> months[i] == 1).findFirst().orElse(months.length);
+    }
+
+    /**
+     * returns the date in Kyureki .
+     *
+     * @param epochDay the epoch day
+     * @return the date in Kyureki
+     */
+    Kyureki of(final int epochDay) {
+      final int found = Arrays.binarySearch(starts, epochDay);
+      final int i = found < 0 ? -found - 2 : found;
+
+      return new Kyureki(i < first ? year - 1 : year, Math.abs(months[i]), months[i] < 0, epochDay - starts[i] + 1);
+    }
+
+    /**
+     * returns the index of the month .
+     *
+     * @param year the year in Kyureki
+     * @param month the month in Kyureki
+     * @param leapMonth the month is leap, or not
+     * @return the index of the month, or -1 if not found
+     */
+    int indexOf(final int year, final int month, final boolean leapMonth) {
+      return IntStream.range(year < this.year ? 0 : first, year < this.year ? first : months.length).filter(i -> months[i] == (leapMonth ? -month : month)).findFirst().orElse(-1);
+    }
+
+    /**
+     * returns the last index of the value which is less than or equals to the key .
+     *
+     * @param values sorted values
+     * @param key the value to search
+     * @return the last index of the value which is less than or equals to the key
+     */
+    private static int lastIndexOf(final int[] values, final int key) {
+      return IntStream.iterate(values.length - 1, i -> i - 1).limit(values.length).filter(i -> values[i] <= key).findFirst().orElse(0);
+    }
+  }
+
+  /** the offset of Japan Standard Time ( in days ) . */
+  static final double offset = 9.0 / 24.0;
+
+  /** the maximum count of Sui to cache . */
+  static final int capacity = 64;
+
+  /** finding principal terms . */
+  private static final SolarTerm solarTerm = new SolarTerm();
+
+  /** finding new moons . */
+  private static final LunarPhase lunarPhase = new LunarPhase();
+
+  /** tables of Sui . */
+  private static final Map<Integer, Table> tables = Collections.synchronizedMap(new Lru<>(capacity));
+
+  /** the year . */
+  int year;
+
+  /** the month of year, from 1 to 12 . */
+  int month;
+
+  /** the month is leap, or not . */
+  boolean leapMonth;
+
+  /** the day of month, from 1 to 30 . */
+  int dayOfMonth;
+
+  /**
+   * returns the date in Kyureki .
+   *
+   * @param date the date in Gregorian calendar
+   * @return the date in Kyureki
+   */
+  public static Kyureki of(final LocalDate date) {
+    final int epochDay = Math.toIntExact(date.toEpochDay());
+    final Table table = tableOf(date.getYear());
+
+    return (epochDay < table.starts[0] ? tableOf(date.getYear() - 1) : epochDay < table.starts[table.starts.length - 1] ? table : tableOf(date.getYear() + 1)).of(epochDay);
+  }
+
+  /**
+   * returns the date in Kyureki .
+   *
+   * @param year the year
+   * @param month the month of year, from 1 to 12
+   * @param leapMonth the month is leap, or not
+   * @param dayOfMonth the day of month, from 1 to 30
+   * @return the date in Kyureki
+   * @throws DateTimeException if the date is not exist
+   */
+  public static Kyureki of(final int year, final int month, final boolean leapMonth, final int dayOfMonth) {
+    final Table table = tableOf(month < 11 ? year : year + 1);
+    final int i = table.indexOf(year, month, leapMonth);
+    if (i < 0 || dayOfMonth < 1 || table.starts[i] + dayOfMonth > table.starts[i + 1]) {
+      throw new DateTimeException(String.format("invalid date: %d-%s%d-%d", year, leapMonth ? "leap " : "", month, dayOfMonth));
+    }
+
+    return new Kyureki(year, month, leapMonth, dayOfMonth);
+  }
+
+  /**
+   * returns the date in Gregorian calendar .
+   *
+   * @return the date in Gregorian calendar
+   */
+  public LocalDate toLocalDate() {
+    final Table table = tableOf(month < 11 ? year : year + 1);
+
+    return LocalDate.ofEpochDay(table.starts[table.indexOf(year, month, leapMonth)] + dayOfMonth - 1L);
+  }
+
+  /**
+   * returns the length of the month ( 29 or 30 ) .
+   *
+   * @return the length of the month
+   */
+  public int lengthOfMonth() {
+    final Table table = tableOf(month < 11 ? year : year + 1);
+    final int i = table.indexOf(year, month, leapMonth);
+
+    return table.starts[i + 1] - table.starts[i];
+  }
+
+  /**
+   * returns the table of Sui, which ends in the year .
+   *
+   * @param year the year of Gregorian calendar
+   * @return the table of Sui
+   */
+  static Table tableOf(final int year) {
+    final Table table = tables.get(year);
+    Telemetry.Cache.Kyureki.record(table != null);
+    if (table != null) {
+      return table;
+    }
+    final Table computed = new Table(year);
+    tables.put(year, computed);
+
+    return computed;
+  }
+
+  /**
+   * returns the epoch day in Japan Standard Time .
+   *
+   * @param julianDate the astronomical julian date
+   * @return the epoch day
+   */
+  static int epochDayOf(final double julianDate) {
+    return (int) Math.floor(julianDate - Deamtiet.epochAsJulianDate + offset);
+  }
+
+  /**
+   * returns the astronomical julian date at the first moment of the date ( UTC ) .
+   *
+   * @param date the date
+   * @return the astronomical julian date
+   */
+  static double julianDateOf(final LocalDate date) {
+    return date.toEpochDay() + Deamtiet.epochAsJulianDate;
+  }
+}
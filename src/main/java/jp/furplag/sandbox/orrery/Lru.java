@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a bounded map which evicts the least recently used entry .
+ * <p>this is not thread-safe, so wrap it with {@link java.util.Collections#synchronizedMap(Map)} if shared .</p>
+ *
+ * @author furplag
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class Lru<K, V> extends LinkedHashMap<K, V> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** the maximum count of entries . */
+  private final int capacity;
+
+  Lru(final int capacity) {
+    super(16, .75f, true);
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be a positive number: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+    return size() > capacity;
+  }
+}
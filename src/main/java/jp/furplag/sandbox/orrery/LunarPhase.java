@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.stream.DoubleStream;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * finding the instant of principal phases of the Moon, when the elongation ( the longitude of the Moon minus the Sun ) reaches to the multiple of 90&deg; .
+ *
+ * @author furplag
+ *
+ */
+public class LunarPhase {
+
+  /**
+   * the principal phases of the Moon .
+   *
+   * @author furplag
+   *
+   */
+  @RequiredArgsConstructor
+  public enum Phase {
+    /** new moon ( 0&deg; ) . */
+    New(0.0),
+    /** first quarter ( 90&deg; ) . */
+    FirstQuarter(90.0),
+    /** full moon ( 180&deg; ) . */
+    Full(180.0),
+    /** last quarter ( 270&deg; ) . */
+    LastQuarter(270.0);
+
+    /** the elongation of the Moon . */
+    @Getter
+    private final double elongation;
+
+    /**
+     * returns the phase which comes next to the elongation .
+     *
+     * @param elongation the elongation of the Moon
+     * @return the phase which comes next
+     */
+    static Phase following(final double elongation) {
+      return values()[((int) (Astror.circulate(elongation) / 90.0) + 1) % 4];
+    }
+  }
+
+  /** the mean length of synodic month ( in days ) . */
+  static final double synodicMonth = 29.530589;
+
+  /** the mean motion of the elongation ( degrees per day ) . */
+  static final double rate = 360.0 / synodicMonth;
+
+  /** the default tolerance of the instant ( a second ) . */
+  static final double defaultTolerance = 1.0 / 86400.0;
+
+  /** the default limit count of evaluations of the elongation to find one phase . */
+  static final int defaultMaxEvaluations = 10;
+
+  /** the solver . */
+  final Solver solver;
+
+  /**
+   * finding phases in a second .
+   */
+  public LunarPhase() {
+    this(defaultTolerance, defaultMaxEvaluations);
+  }
+
+  /**
+   * finding phases .
+   *
+   * @param tolerance the tolerance of the instant ( in days )
+   * @param maxEvaluations the limit count of evaluations of the elongation to find one phase
+   */
+  public LunarPhase(final double tolerance, final int maxEvaluations) {
+    solver = new Solver(tolerance, maxEvaluations);
+  }
+
+  /**
+   * returns the elongation of the Moon ( the longitude of the Moon minus the Sun ) .
+   *
+   * @param julianDate the astronomical julian date
+   * @return the elongation of the Moon in range of 0&deg; - 360&deg;
+   */
+  public static double elongationOf(final double julianDate) {
+    return Moment.unrecorded(julianDate).getElongation();
+  }
+
+  /**
+   * stores the elongation of the Moon and its rate, in a single pass over the terms of each series .
+   *
+   * @param julianDate the astronomical julian date
+   * @param destination the array to store the elongation, and the rate ( degrees per day )
+   */
+  static void motionOf(final double julianDate, final double[] destination) {
+    final Moment moment = Moment.unrecorded(julianDate);
+    destination[1] = moment.getElongationRate();
+    destination[0] = moment.getElongation();
+  }
+
+  /**
+   * returns the principal phase which comes next to the instant .
+   * <p>the phase is regarded as already passed, if the elongation reaches to it within the tolerance .</p>
+   *
+   * @param julianDate the astronomical julian date
+   * @return the principal phase which comes next to the instant
+   */
+  public Phase upcoming(final double julianDate) {
+    return Phase.following(elongationOf(julianDate) + rate * solver.getTolerance());
+  }
+
+  /**
+   * returns the instant of the principal phase which comes next to the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @return the astronomical julian date of the principal phase which comes next to the instant
+   * @throws IllegalStateException if the instant has not converged within the limit count of evaluations
+   */
+  public double next(final double julianDate) {
+    return next(julianDate, upcoming(julianDate));
+  }
+
+  /**
+   * returns the instant of the phase which comes next to the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @param phase the principal phase of the Moon
+   * @return the astronomical julian date of the phase which comes next to the instant
+   * @throws IllegalStateException if the instant has not converged within the limit count of evaluations
+   */
+  public double next(final double julianDate, final Phase phase) {
+    // @formatter:off
+    final double distance = Astror.circulate(phase.elongation - elongationOf(julianDate));
+    final double result = solver.solve(LunarPhase::motionOf, phase.elongation, rate, julianDate + ((distance < rate * solver.getTolerance() ? 360.0 : 0) + distance) / rate);
+
+    // @formatter:on
+
+    return result > julianDate ? result : next(julianDate + synodicMonth / 2.0, phase);
+  }
+
+  /**
+   * returns the instants of new moons in the range .
+   *
+   * @param from the astronomical julian date ( exclusive )
+   * @param to the astronomical julian date ( exclusive )
+   * @return the astronomical julian dates of new moons
+   * @throws IllegalStateException if the instant has not converged within the limit count of evaluations
+   */
+  public double[] newMoons(final double from, final double to) {
+    final DoubleStream.Builder newMoons = DoubleStream.builder();
+    for (double newMoon = next(from, Phase.New); newMoon < to; newMoon = next(newMoon, Phase.New)) {
+      newMoons.add(newMoon);
+    }
+
+    return newMoons.build().toArray();
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import lombok.Getter;
+
+/**
+ * the longitude of the planet which memoized by julian date quantized in the resolution .
+ * <p>
+ * the cache is set-associative on primitive keys ( the index of quantized julian date ) , each set has {@value #ways} entries
+ * which evicts with the clock ( second chance ) algorithm, and guarded by its own lock . a hit reads optimistically without locking .
+ * the longitude ( and its rate ) is always computed at the quantized julian date, so that the result does not depend on which instant comes first .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Memoized implements EclipticLongitude {
+
+  /** the count of entries in a set . */
+  static final int ways = 8;
+
+  /** the key which means empty . */
+  private static final long empty = Long.MIN_VALUE;
+
+  /** the planet . */
+  @Getter
+  private final EclipticLongitude source;
+
+  /** the resolution of julian date ( days ) . */
+  @Getter
+  private final double resolution;
+
+  /** the count of sets . */
+  private final int sets;
+
+  /** keys of entries . */
+  private final long[] keys;
+
+  /** values of entries . */
+  private final double[] values;
+
+  /** reference bits of entries . */
+  private final boolean[] referenced;
+
+  /** the clock hand of each set . */
+  private final int[] hands;
+
+  /** the lock of each set . */
+  private final StampedLock[] locks;
+
+  /** the count of hits . */
+  private final LongAdder hits = new LongAdder();
+
+  /** the count of misses . */
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * the longitude of the planet which memoized by julian date quantized in the resolution .
+   *
+   * @param source the planet
+   * @param resolution the resolution of julian date ( days )
+   * @param capacity the maximum count of entries, which rounds up to a power of two ( at least {@value #ways} )
+   * @throws IllegalArgumentException if the resolution or the capacity is not positive
+   */
+  public Memoized(final EclipticLongitude source, final double resolution, final int capacity) {
+    if (!(resolution > 0) || !Double.isFinite(resolution) || capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException(String.format("invalid cache: resolution %s days, capacity %d .", resolution, capacity));
+    }
+    this.source = Objects.requireNonNull(source);
+    this.resolution = resolution;
+    sets = Math.max(Integer.highestOneBit(capacity - 1) << 1, ways) / ways;
+    keys = new long[sets * ways];
+    Arrays.fill(keys, empty);
+    values = new double[sets * ways];
+    referenced = new boolean[sets * ways];
+    hands = new int[sets];
+    locks = Arrays.stream(new StampedLock[sets]).map(nope -> new StampedLock()).toArray(StampedLock[]::new);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Formula[] getFormulas() {
+    return source.getFormulas();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Series getSeries() {
+    return source.getSeries();
+  }
+
+  /**
+   * returns the longitude of the planet at the julian date which quantized in the resolution .
+   *
+   * @param julianDate the astronomical julian date
+   * @return longitude of the planet at the quantized julian date
+   */
+  @Override
+  public double getLongitude(final double julianDate) {
+    final double quantized = Math.rint(julianDate / resolution);
+    if (!(Math.abs(quantized) < 0x1p62)) {
+      return source.getLongitude(julianDate);
+    }
+    final long key = (long) quantized;
+    final int set = setOf(key);
+    final StampedLock lock = locks[set];
+    final long stamp = lock.tryOptimisticRead();
+    int found = indexOf(set, key);
+    double value = found < 0 ? Double.NaN : values[found];
+    if (!lock.validate(stamp)) {
+      final long read = lock.readLock();
+      try {
+        found = indexOf(set, key);
+        value = found < 0 ? Double.NaN : values[found];
+      } finally {
+        lock.unlockRead(read);
+      }
+    }
+    if (found > -1) {
+      referenced[found] = true;
+      hits.increment();
+      Telemetry.Cache.Longitude.record(true);
+
+      return value;
+    }
+    misses.increment();
+    Telemetry.Cache.Longitude.record(false);
+    final double computed = source.getLongitude(key * resolution);
+    final long write = lock.writeLock();
+    try {
+      if (indexOf(set, key) < 0) {
+        final int victim = victimOf(set);
+        keys[victim] = key;
+        values[victim] = computed;
+        referenced[victim] = true;
+      }
+    } finally {
+      lock.unlockWrite(write);
+    }
+
+    return computed;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double[] getLongitudes(final double[] julianDates, final double[] longitudes, final int offset, final int length) {
+    Objects.checkFromIndexSize(offset, length, julianDates.length);
+    Objects.checkFromIndexSize(offset, length, longitudes.length);
+    for (int i = offset; i < offset + length; i++) {
+      longitudes[i] = getLongitude(julianDates[i]);
+    }
+
+    return longitudes;
+  }
+
+  /**
+   * returns the longitude and its rate from the source at the julian date which quantized in the resolution .
+   * <p>
+   * the longitude is exactly the same as {@link #getLongitude(double)}, and the rate is of the same instant .
+   * those are computed in a single pass over the terms, so that neither is memoized .
+   * </p>
+   *
+   * @param julianDate the astronomical julian date
+   * @param destination the array to store the longitude, and the rate ( degrees per day )
+   * @param offset the index of destination to store the longitude
+   * @return destination
+   * @throws IndexOutOfBoundsException if the destination has no room for two values from offset
+   */
+  @Override
+  public double[] getLongitudeAndRate(final double julianDate, final double[] destination, final int offset) {
+    final double quantized = Math.rint(julianDate / resolution);
+
+    return source.getLongitudeAndRate(Math.abs(quantized) < 0x1p62 ? ((long) quantized) * resolution : julianDate, destination, offset);
+  }
+
+  /**
+   * returns the longitude of the planet which evaluates only the terms those are necessary for the precision,
+   * and memoized in the same resolution and capacity ( with a cache of its own ) .
+   *
+   * @param precision the level of precision
+   * @return {@link Memoized}, or this if the precision is {@link Precision#Full} and the kernel is the same
+   */
+  @Override
+  public Memoized truncate(final Precision precision) {
+    return memoize(source.truncate(precision));
+  }
+
+  /**
+   * returns the longitude of the planet which evaluates with the kernel of cosine,
+   * and memoized in the same resolution and capacity ( with a cache of its own ) .
+   *
+   * @param cosine the kernel of cosine
+   * @return {@link Memoized}, or this if the kernel is the same
+   */
+  @Override
+  public Memoized withCosine(final Cosine cosine) {
+    return memoize(source.withCosine(cosine));
+  }
+
+  /**
+   * memoizes the planet in the same resolution and capacity, unless it is the source .
+   *
+   * @param planet the planet
+   * @return {@link Memoized}
+   */
+  private Memoized memoize(final EclipticLongitude planet) {
+    return planet == source ? this : planet.memoize(resolution, getCapacity());
+  }
+
+  /**
+   * returns the maximum count of entries .
+   *
+   * @return the maximum count of entries
+   */
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * returns the count of hits .
+   *
+   * @return the count of hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * returns the count of misses .
+   *
+   * @return the count of misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * returns the ratio of hits .
+   *
+   * @return the ratio of hits, or NaN if never looked up
+   */
+  public double getHitRatio() {
+    final long hit = hits.sum(), lookup = hit + misses.sum();
+
+    return lookup == 0 ? Double.NaN : hit / (double) lookup;
+  }
+
+  /**
+   * returns the set of the key .
+   *
+   * @param key the index of quantized julian date
+   * @return the index of set
+   */
+  private int setOf(final long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (sets - 1);
+  }
+
+  /**
+   * returns the index of the entry of the key in the set .
+   *
+   * @param set the index of set
+   * @param key the index of quantized julian date
+   * @return the index of the entry, or -1 if not exists
+   */
+  private int indexOf(final int set, final long key) {
+    for (int i = set * ways; i < (set + 1) * ways; i++) {
+      if (keys[i] == key) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * returns the index of the entry to replace in the set, with the clock algorithm .
+   *
+   * @param set the index of set
+   * @return the index of the entry to replace
+   */
+  private int victimOf(final int set) {
+    while (true) {
+      final int i = set * ways + hands[set];
+      hands[set] = (hands[set] + 1) % ways;
+      if (keys[i] == empty || !referenced[i]) {
+        return i;
+      }
+      referenced[i] = false;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.Objects;
+
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.Getter;
+
+/**
+ * the context of an instant, which computes the time scale once and caches the quantities derived from it .
+ * <p>
+ * Delta T and T are computed at construction, and the sum of the series of the Sun and the Moon, the elongation
+ * and the rotation of precession are computed at the first access . each of those is exactly the same as
+ * {@link EclipticLongitude#getLongitude(double)}, {@link LunarPhase#elongationOf(double)} and {@link Precession.Rotation#Rotation(double)} .
+ * not thread-safe, so that confine a moment in a thread .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Moment {
+
+  /** the astronomical julian date . */
+  @Getter
+  private final double julianDate;
+
+  /** Delta T ( in seconds ) . */
+  @Getter
+  private final double deltaOfT;
+
+  /** T (terrestrialized julian date) . */
+  @Getter
+  private final double terrestrialTime;
+
+  /** records {@link Telemetry.Probe#Longitude}, or not . */
+  private final boolean recording;
+
+  /** the sum of the series of the Sun, or NaN if not computed yet . */
+  private double sun = Double.NaN;
+
+  /** the sum of the series of the Moon, or NaN if not computed yet . */
+  private double moon = Double.NaN;
+
+  /** the rate of the longitude of the Sun ( degrees per day ) , or NaN if not computed yet . */
+  private double sunRate = Double.NaN;
+
+  /** the rate of the longitude of the Moon ( degrees per day ) , or NaN if not computed yet . */
+  private double moonRate = Double.NaN;
+
+  /** the rotation of precession, or null if not computed yet . */
+  private Precession.Rotation rotation;
+
+  /** the angles of precession, or null if not computed yet . */
+  private double[] angles;
+
+  private Moment(final double julianDate, final boolean recording) {
+    this.julianDate = julianDate;
+    this.recording = recording;
+    deltaOfT = DeltaT.estimate(julianDate);
+    terrestrialTime = (julianDate - Deamtiet.j2000 + Astror.daysOf(deltaOfT)) / (Deamtiet.daysOfYearOfJulian * 100.0);
+  }
+
+  /**
+   * returns the context of the instant .
+   *
+   * @param julianDate the astronomical julian date
+   * @return {@link Moment}
+   */
+  public static Moment of(final double julianDate) {
+    return new Moment(julianDate, true);
+  }
+
+  /**
+   * returns the context of the instant, which does not record {@link Telemetry.Probe#Longitude} .
+   * <p>for the evaluations inside of root finding, so that the probe counts only the calls from outside .</p>
+   *
+   * @param julianDate the astronomical julian date
+   * @return {@link Moment}
+   */
+  static Moment unrecorded(final double julianDate) {
+    return new Moment(julianDate, false);
+  }
+
+  /**
+   * returns the longitude of the Sun .
+   *
+   * @return the longitude of the Sun in range of 0&deg; - 360&deg;
+   */
+  public double getSun() {
+    return Astror.circulate(Astror.circulate(sum(EclipticLongitude.Sun)));
+  }
+
+  /**
+   * returns the longitude of the Moon .
+   *
+   * @return the longitude of the Moon in range of 0&deg; - 360&deg;
+   */
+  public double getMoon() {
+    return Astror.circulate(Astror.circulate(sum(EclipticLongitude.Moon)));
+  }
+
+  /**
+   * returns the longitude of the planet, from the cache if the planet is either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon} .
+   * <p>the others evaluate their series at T of this moment, in each call .</p>
+   *
+   * @param planet the planet
+   * @return the longitude of the planet in range of 0&deg; - 360&deg;
+   */
+  public double getLongitude(final EclipticLongitude planet) {
+    return Astror.circulate(Astror.circulate(sum(Objects.requireNonNull(planet))));
+  }
+
+  /**
+   * returns the elongation of the Moon ( the longitude of the Moon minus the Sun ) .
+   *
+   * @return the elongation of the Moon in range of 0&deg; - 360&deg;
+   */
+  public double getElongation() {
+    return Astror.circulate(sum(EclipticLongitude.Moon) - sum(EclipticLongitude.Sun));
+  }
+
+  /**
+   * returns the rate of the longitude of the planet ( daily motion ) , from the cache if the planet is either {@link EclipticLongitude#Sun} or {@link EclipticLongitude#Moon} .
+   * <p>the sum of the series is computed in the same pass, so that the longitude also is cached .</p>
+   *
+   * @param planet the planet
+   * @return the rate of the longitude ( degrees per day )
+   * @see EclipticLongitude#getLongitudeAndRate(double, double[], int)
+   */
+  public double getRate(final EclipticLongitude planet) {
+    if (planet == EclipticLongitude.Sun) {
+      if (Double.isNaN(sunRate)) {
+        final double[] motion = estimateWithRate(planet);
+        sun = motion[0];
+        sunRate = motion[1];
+      }
+
+      return sunRate;
+    } else if (planet == EclipticLongitude.Moon) {
+      if (Double.isNaN(moonRate)) {
+        final double[] motion = estimateWithRate(planet);
+        moon = motion[0];
+        moonRate = motion[1];
+      }
+
+      return moonRate;
+    }
+
+    return estimateWithRate(Objects.requireNonNull(planet))[1];
+  }
+
+  /**
+   * returns the rate of the elongation of the Moon ( degrees per day ) .
+   *
+   * @return the rate of the elongation of the Moon
+   */
+  public double getElongationRate() {
+    return getRate(EclipticLongitude.Moon) - getRate(EclipticLongitude.Sun);
+  }
+
+  /**
+   * returns the rotation of precession at T of this moment .
+   *
+   * @return {@link Precession.Rotation}
+   */
+  public Precession.Rotation getRotation() {
+    if (rotation == null) {
+      rotation = new Precession.Rotation(terrestrialTime);
+    }
+
+    return rotation;
+  }
+
+  /**
+   * returns the angles of precession &zeta;, &Zeta; and &theta; ( in degrees ) .
+   *
+   * @return the angles of precession
+   * @see Precession.Rotation#anglesOf(double, double[], int)
+   */
+  public double[] getAngles() {
+    if (angles == null) {
+      angles = Precession.Rotation.anglesOf(terrestrialTime, new double[3], 0);
+    }
+
+    return angles.clone();
+  }
+
+  /**
+   * returns the sum of the series of the planet ( not circulated ) .
+   *
+   * @param planet the planet
+   * @return the sum of the series
+   */
+  private double sum(final EclipticLongitude planet) {
+    if (planet == EclipticLongitude.Sun) {
+      return Double.isNaN(sun) ? (sun = estimate(planet)) : sun;
+    } else if (planet == EclipticLongitude.Moon) {
+      return Double.isNaN(moon) ? (moon = estimate(planet)) : moon;
+    }
+
+    return estimate(planet);
+  }
+
+  /**
+   * evaluates the series of the planet at T of this moment .
+   *
+   * @param planet the planet
+   * @return the sum of the series
+   */
+  private double estimate(final EclipticLongitude planet) {
+    final long start = recording ? Telemetry.start() : 0;
+    final double sum = planet.getSeries().estimate(terrestrialTime);
+    Telemetry.Probe.Longitude.record(start);
+
+    return sum;
+  }
+
+  /**
+   * evaluates the series of the planet and its rate at T of this moment .
+   *
+   * @param planet the planet
+   * @return the sum of the series, and the rate ( degrees per day )
+   */
+  private double[] estimateWithRate(final EclipticLongitude planet) {
+    final long start = recording ? Telemetry.start() : 0;
+    final double[] motion = planet.getSeries().estimate(terrestrialTime, new double[2], 0);
+    motion[1] /= Deamtiet.daysOfYearOfJulian * 100.0;
+    Telemetry.Probe.Longitude.record(start);
+
+    return motion;
+  }
+}
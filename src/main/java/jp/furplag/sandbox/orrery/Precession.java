@@ -15,15 +15,19 @@
  */
 package jp.furplag.sandbox.orrery;
 
-import java.util.Arrays;
+import java.nio.DoubleBuffer;
 import java.util.Collections;
-import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import lombok.Getter;
+import lombok.Value;
 
 /**
  * precession of the Sun .
+ * <p>an instance keeps the result of {@link #compute(double, double)}, so that it is not thread-safe . use {@link Rotation} to share .</p>
  *
  * @author furplag
  *
@@ -39,25 +43,32 @@ public abstract class Precession {
   static class Formula {/* @formatter:off */
 
     /** construct parameter of &zeta; . */
-    static final List<Double> constOfZeta = Collections.unmodifiableList(Arrays.asList(2306.2181, 0.30188, 0.017998));
+    static final double[] constOfZeta = {2306.2181, 0.30188, 0.017998};
 
     /** construct parameter of &Zeta; . */
-    static final List<Double> constOfZ = Collections.unmodifiableList(Arrays.asList(2306.2181, 1.09468, 0.018203));
+    static final double[] constOfZ = {2306.2181, 1.09468, 0.018203};
 
     /** construct parameter of &theta; . */
-    static final List<Double> constOfTheta = Collections.unmodifiableList(Arrays.asList(2004.3109, -0.42665, -0.041833));
+    static final double[] constOfTheta = {2004.3109, -0.42665, -0.041833};
 
     /**
-     * a part of {@link #ofT(List, double)} .
+     * a part of {@link #ofT(double[], double)} .
+     * <p>
+     * the sum of p<sub>i</sub>T<sup>i + 1</sup> ( arcseconds ) , which evaluates with Horner's rule .
+     * the result is not bitwise the same as the former compensated summation of each term, and differs at most 4 ulp ( less than 1E-10 arcseconds ) .
+     * </p>
      *
      * @param parameter construct parameter
      * @param terrestrialTime T (terrestrialized julian date)
      * @return value to generate formula
      */
-    private static final double initialization(final List<Double> parameter, final double terrestrialTime) {
-      return parameter.stream().mapToDouble((t) ->
-        t * IntStream.range(0, parameter.indexOf(t) + 1).mapToDouble((nope)->Double.valueOf(terrestrialTime)).reduce(1.0, (o1, o2) -> o1 * o2)
-      ).sum() / 3600.0 * Astror.radianizr;
+    static final double initialization(final double[] parameter, final double terrestrialTime) {
+      double result = 0;
+      for (int i = parameter.length - 1; i >= 0; i--) {
+        result = (result + parameter[i]) * terrestrialTime;
+      }
+
+      return result / 3600.0 * Astror.radianizr;
     }
 
     /**
@@ -67,7 +78,7 @@ public abstract class Precession {
      * @param terrestrialTime T (terrestrialized julian date)
      * @return the formula
      */
-    private static Formula ofT(final List<Double> parameter, final double terrestrialTime) {
+    private static Formula ofT(final double[] parameter, final double terrestrialTime) {
       return new Formula(initialization(parameter, terrestrialTime));
     }
 
@@ -80,18 +91,336 @@ public abstract class Precession {
     }
   /* @formatter:on */}
 
+  /**
+   * the rotation of precession at a terrestrial time, which is immutable and thread-safe .
+   *
+   * @author furplag
+   *
+   */
+  public static final class Rotation {
+
+    /** the unit of T to quantize in {@link #of(double)} ( about 50 minutes, so the precession differs at most about 0.003 arcseconds ) . */
+    static final double quantum = 1.0 / (1 << 20);
+
+    /** the maximum count of rotations to cache . */
+    static final int capacity = 1 << 10;
+
+    /** rotations which cached by quantized T . */
+    private static final Map<Long, Rotation> rotations = Collections.synchronizedMap(new Lru<>(capacity));
+
+    /** T (terrestrialized julian date) . */
+    @Getter
+    private final double terrestrialTime;
+
+    /* @formatter:off */
+    /** the matrix . */ private final double xx, xy, xz, yx, yy, yz, zx, zy, zz;
+    /* @formatter:on */
+
+    /**
+     * the rotation of precession at a terrestrial time .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     */
+    public Rotation(final double terrestrialTime) {
+      this.terrestrialTime = terrestrialTime;
+      final Formula zeta = Formula.ofT(Formula.constOfZeta, terrestrialTime);
+      final Formula z = Formula.ofT(Formula.constOfZ, terrestrialTime);
+      final Formula theta = Formula.ofT(Formula.constOfTheta, terrestrialTime);
+      /* @formatter:off */
+      xx = (zeta.cosine * z.cosine * theta.cosine) + (zeta.sine * z.sine * -1); xy = (-zeta.sine * z.cosine * theta.cosine) + (zeta.cosine * z.sine * -1); xz = (-z.cosine * theta.sine);
+      yx = (zeta.cosine * z.sine * theta.cosine) + (zeta.sine * z.cosine); yy = (-zeta.sine * z.sine * theta.cosine) + (zeta.cosine * z.cosine); yz = (-z.sine * theta.sine);
+      zx = (zeta.cosine * theta.sine); zy = (-zeta.sine * theta.sine); zz = theta.cosine;
+      /* @formatter:on */
+    }
+
+    /**
+     * returns the rotation at the terrestrial time which quantized by {@link #quantum}, from the cache if exists .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     * @return {@link Rotation}
+     */
+    public static Rotation of(final double terrestrialTime) {
+      final long key = Math.round(terrestrialTime / quantum);
+      final Rotation rotation = rotations.get(key);
+      Telemetry.Cache.Rotation.record(rotation != null);
+      if (rotation != null) {
+        return rotation;
+      }
+      final Rotation computed = new Rotation(key * quantum);
+      rotations.put(key, computed);
+
+      return computed;
+    }
+
+    /**
+     * returns the precessed location .
+     *
+     * @param alpha longitude ( degrees )
+     * @param delta latitude ( degrees )
+     * @return {@link Coordinate} , longitude in range of 0&deg; - 360&deg; and latitude in range of -90&deg; - 90&deg;
+     */
+    public Coordinate compute(final double alpha, final double delta) {
+      final double[] result = compute(alpha, delta, new double[2], 0);
+
+      return new Coordinate(result[0], result[1]);
+    }
+
+    /**
+     * stores the precessed location into the array, longitude at the offset and latitude at the next .
+     *
+     * @param alpha longitude ( degrees )
+     * @param delta latitude ( degrees )
+     * @param destination the array to store the result, longitude in range of 0&deg; - 360&deg; and latitude in range of -90&deg; - 90&deg;
+     * @param offset the index to store the longitude
+     * @return destination
+     * @throws IndexOutOfBoundsException if the destination has no room for the result
+     */
+    public double[] compute(final double alpha, final double delta, final double[] destination, final int offset) {
+      Objects.checkFromIndexSize(offset, 2, destination.length);
+      final long start = Telemetry.start();
+      rotate(alpha, delta, destination, offset);
+      Telemetry.Probe.Precession.record(start);
+
+      return destination;
+    }
+
+    /**
+     * stores the precessed locations into the array, for each pair of longitude and latitude .
+     * <p>
+     * the coordinates are pairs of longitude and latitude in degrees ( a<sub>0</sub>, d<sub>0</sub>, a<sub>1</sub>, d<sub>1</sub>, ... ) ,
+     * and the results are stored in the same layout and unit, so that the destination is able to be the coordinates itself .
+     * a large input is split into the tasks of fork/join, and each result is exactly the same as {@link #compute(double, double)} .
+     * </p>
+     *
+     * @param coordinates pairs of longitude and latitude
+     * @param destination the array to store the results
+     * @return destination
+     * @throws IllegalArgumentException if the coordinates are not pairs
+     * @throws IndexOutOfBoundsException if the destination is shorter than the coordinates
+     */
+    public double[] compute(final double[] coordinates, final double[] destination) {
+      final int pairs = pairsOf(coordinates.length);
+      Objects.checkFromIndexSize(0, coordinates.length, destination.length);
+      Batch.invoke(pairs, (from, to) -> {
+        for (int i = from * 2; i < to * 2; i += 2) {
+          rotate(coordinates[i], coordinates[i + 1], destination, i);
+        }
+      });
+
+      return destination;
+    }
+
+    /**
+     * stores the precessed locations into the buffer, for each pair of longitude and latitude .
+     * <p>
+     * the coordinates are the remaining of the buffer in degrees, and the results are stored in the same layout and unit from the position of destination .
+     * positions of both buffers are not changed .
+     * </p>
+     *
+     * @param coordinates pairs of longitude and latitude
+     * @param destination the buffer to store the results
+     * @return destination
+     * @throws IllegalArgumentException if the coordinates are not pairs
+     * @throws IndexOutOfBoundsException if the remaining of destination is shorter than the coordinates
+     * @see #compute(double[], double[])
+     */
+    public DoubleBuffer compute(final DoubleBuffer coordinates, final DoubleBuffer destination) {
+      final int pairs = pairsOf(coordinates.remaining());
+      Objects.checkFromIndexSize(0, coordinates.remaining(), destination.remaining());
+      final int source = coordinates.position(), target = destination.position();
+      Batch.invoke(pairs, (from, to) -> {
+        final double[] result = new double[2];
+        for (int i = from * 2; i < to * 2; i += 2) {
+          rotate(coordinates.get(source + i), coordinates.get(source + i + 1), result, 0);
+          destination.put(target + i, result[0]).put(target + i + 1, result[1]);
+        }
+      });
+
+      return destination;
+    }
+
+    /**
+     * returns the count of pairs .
+     *
+     * @param length the count of elements
+     * @return the count of pairs
+     * @throws IllegalArgumentException if the length is odd
+     */
+    private static int pairsOf(final int length) {
+      if (length % 2 != 0) {
+        throw new IllegalArgumentException("coordinates must be pairs of longitude and latitude: " + length);
+      }
+
+      return length / 2;
+    }
+
+    /**
+     * a part of {@link #compute(double, double, double[], int)} .
+     *
+     * @param alpha longitude ( degrees )
+     * @param delta latitude ( degrees )
+     * @param destination the array to store the result
+     * @param offset the index to store the longitude
+     */
+    private void rotate(final double alpha, final double delta, final double[] destination, final int offset) {
+      final double a = alpha * Astror.radianizr, d = delta * Astror.radianizr;
+      final double cosineOfDelta = Math.cos(d);
+      final double l = Math.cos(a) * cosineOfDelta;
+      final double m = Math.sin(a) * cosineOfDelta;
+      final double n = Math.sin(d);
+      destination[offset] = Astror.circulate(Math.atan2(yx * l + yy * m + yz * n, xx * l + xy * m + xz * n) * Astror.degreezr);
+      destination[offset + 1] = Math.asin(zx * l + zy * m + zz * n) * Astror.degreezr;
+    }
+
+    /**
+     * a part of {@link Precession#compute(double, double)}, which keeps the former result .
+     * <p>
+     * the location is in radians, and the longitude is the arctangent in radians plus 180 or 360 ( the latitude is in degrees ) .
+     * use {@link #compute(double, double, double[], int)} for the location in degrees .
+     * </p>
+     *
+     * @param alpha longitude ( radians )
+     * @param delta latitude ( radians )
+     * @param destination the array to store the result
+     * @param offset the index to store the longitude
+     */
+    void rotateAsFormer(final double alpha, final double delta, final double[] destination, final int offset) {
+      final double cosineOfDelta = Math.cos(delta);
+      final double l = Math.cos(alpha) * cosineOfDelta;
+      final double m = Math.sin(alpha) * cosineOfDelta;
+      final double n = Math.sin(delta);
+      final double r2 = xx * l + xy * m + xz * n;
+      final double r3 = yx * l + yy * m + yz * n;
+      final double r4 = zx * l + zy * m + zz * n;
+      destination[offset] = (Math.atan(r3 / r2)) + (r2 < 0 ? 180.0 : r3 < 0 ? 360.0 : 0);
+      destination[offset + 1] = Math.asin(r4) * Astror.degreezr;
+    }
+
+    /**
+     * stores the angles of precession &zeta;, &Zeta; and &theta; ( in degrees ) at the terrestrial time into the array .
+     *
+     * @param terrestrialTime T (terrestrialized julian date)
+     * @param destination the array to store angles
+     * @param offset the index of destination to store &zeta;
+     * @return destination
+     * @throws IndexOutOfBoundsException if the destination has no room for three angles from offset
+     */
+    public static double[] anglesOf(final double terrestrialTime, final double[] destination, final int offset) {
+      Objects.checkFromIndexSize(offset, 3, destination.length);
+      destination[offset] = Formula.initialization(Formula.constOfZeta, terrestrialTime) * Astror.degreezr;
+      destination[offset + 1] = Formula.initialization(Formula.constOfZ, terrestrialTime) * Astror.degreezr;
+      destination[offset + 2] = Formula.initialization(Formula.constOfTheta, terrestrialTime) * Astror.degreezr;
+
+      return destination;
+    }
+
+    /**
+     * returns the matrix, in order of row .
+     *
+     * @return the matrix
+     */
+    public double[] getMatrix() {
+      return new double[] { xx, xy, xz, yx, yy, yz, zx, zy, zz };
+    }
+  }
+
+  /**
+   * the task of fork/join to process a range of pairs .
+   *
+   * @author furplag
+   *
+   */
+  private static final class Batch extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /** the count of pairs to process in a task at most . */
+    static final int threshold = 1 << 12;
+
+    /**
+     * the process for a range of pairs .
+     *
+     * @author furplag
+     *
+     */
+    @FunctionalInterface
+    interface Kernel {
+      void compute(int from, int to);
+    }
+
+    /** the process . */
+    private final transient Kernel kernel;
+
+    /** the first index of pairs ( inclusive ) . */
+    private final int from;
+
+    /** the last index of pairs ( exclusive ) . */
+    private final int to;
+
+    private Batch(final Kernel kernel, final int from, final int to) {
+      this.kernel = kernel;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * process the pairs, in parallel if the count exceeds {@link #threshold} .
+     *
+     * @param pairs the count of pairs
+     * @param kernel the process
+     */
+    static void invoke(final int pairs, final Kernel kernel) {
+      if (pairs <= threshold) {
+        kernel.compute(0, pairs);
+      } else {
+        ForkJoinPool.commonPool().invoke(new Batch(kernel, 0, pairs));
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (to - from <= threshold) {
+        kernel.compute(from, to);
+      } else {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new Batch(kernel, from, middle), new Batch(kernel, middle, to));
+      }
+    }
+  }
+
+  /**
+   * the location which precessed .
+   *
+   * @author furplag
+   *
+   */
+  @Value
+  public static class Coordinate {
+
+    /** longitude on the Earth . */
+    double longitude;
+
+    /** latitude on the Earth . */
+    double latitude;
+
+    /**
+     * optimize longitude with precession .
+     *
+     * @param longitude the longitude of the Sun
+     * @return optimized longitude
+     */
+    public double optimize(final double longitude) {
+      return Astror.circulate(longitude - this.longitude);
+    }
+  }
+
   /** T (terrestrialized julian date) . */
   @Getter
   private final double terrestrialTime;
 
-  /** &zeta; . */
-  private final Formula zeta;
-
-  /** &Zeta; . */
-  private final Formula z;
-
-  /** &theta; . */
-  private final Formula theta;
+  /** the rotation . */
+  private final Rotation rotation;
 
   /** longitude on the Earth . */
   @Getter
@@ -103,44 +432,28 @@ public abstract class Precession {
 
   Precession(double terrestrialTime) {
     this.terrestrialTime = terrestrialTime;
-    zeta = Formula.ofT(Formula.constOfZeta, terrestrialTime);
-    z = Formula.ofT(Formula.constOfZ, terrestrialTime);
-    theta = Formula.ofT(Formula.constOfTheta, terrestrialTime);
+    rotation = new Rotation(terrestrialTime);
   }
 
   /**
    * initialize using location .
+   * <p>keeps the former result, see {@link Rotation#compute(double, double)} for the location in degrees .</p>
    *
-   * @param alpha longitude
-   * @param delta latitude
+   * @param alpha longitude ( radians )
+   * @param delta latitude ( radians )
    * @return result
    */
   public Precession compute(final double alpha, final double delta) {
-    final double r2 = rOf(alpha, delta, (zeta.cosine * z.cosine * theta.cosine), (zeta.sine * z.sine * -1), (-zeta.sine * z.cosine * theta.cosine), (zeta.cosine * z.sine * -1), (-z.cosine * theta.sine));
-    final double r3 = rOf(alpha, delta, (zeta.cosine * z.sine * theta.cosine), (zeta.sine * z.cosine), (-zeta.sine * z.sine * theta.cosine), (zeta.cosine * z.cosine), (-z.sine * theta.sine));
-    final double r4 = rOf(alpha, delta, (zeta.cosine * theta.sine), 0, (-zeta.sine * theta.sine), 0, theta.cosine);
-    longitude = (Math.atan(r3 / r2)) + (r2 < 0 ? 180.0 : r3 < 0 ? 360.0 : 0);
-    latitude = Math.asin(r4) * Astror.degreezr;
+    final long start = Telemetry.start();
+    final double[] result = new double[2];
+    rotation.rotateAsFormer(alpha, delta, result, 0);
+    Telemetry.Probe.Precession.record(start);
+    longitude = result[0];
+    latitude = result[1];
 
     return this;
   }
 
-  /**
-   * calculations .
-   *
-   * @param alpha longitude
-   * @param delta latitude
-   * @param f formula(s)
-   * @return result
-   */
-  private double rOf(double alpha, double delta, double... f) {
-    final double l = Math.cos(alpha) * Math.cos(delta);
-    final double m = Math.sin(alpha) * Math.cos(delta);
-    final double n = Math.sin(delta);
-
-    return (f[0] + f[1]) * l + (f[2] + f[3]) * m + (f[4]) * n;
-  }
-
   /**
    * optimize longitude with precession .
    *
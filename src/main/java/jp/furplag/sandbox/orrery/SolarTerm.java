@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.stream.IntStream;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+/**
+ * finding the instant of solar terms ( Sekki ), when the apparent longitude of the Sun reaches to the multiple of 15&deg; .
+ *
+ * @author furplag
+ *
+ */
+public class SolarTerm {
+
+  /** the mean motion of the Sun ( degrees per day ) . */
+  static final double rate = 360.0 / 365.2422;
+
+  /** the longitude of the first solar term in the year ( Shokan ) . */
+  static final double origin = 285.0;
+
+  /** the mean interval of solar terms ( in days ) . */
+  static final double interval = 15.0 / rate;
+
+  /** the mean of days from the first day of the year to the first solar term ( Shokan ) . */
+  static final double offset = 5.0;
+
+  /** the default tolerance of the instant ( a second ) . */
+  static final double defaultTolerance = 1.0 / 86400.0;
+
+  /** the default limit count of {@link EclipticLongitude#getLongitude(double)} to find one solar term . */
+  static final int defaultMaxEvaluations = 8;
+
+  /** the solver . */
+  final Solver solver;
+
+  /**
+   * finding solar terms in a second .
+   */
+  public SolarTerm() {
+    this(defaultTolerance, defaultMaxEvaluations);
+  }
+
+  /**
+   * finding solar terms .
+   *
+   * @param tolerance the tolerance of the instant ( in days )
+   * @param maxEvaluations the limit count of {@link EclipticLongitude#getLongitude(double)} to find one solar term
+   */
+  public SolarTerm(final double tolerance, final int maxEvaluations) {
+    solver = new Solver(tolerance, maxEvaluations);
+  }
+
+  /**
+   * returns the instant when the longitude of the Sun reaches the specified degree, which is the nearest one of the julian date .
+   *
+   * @param longitude the longitude of the Sun ( normally, the multiple of 15&deg; )
+   * @param julianDate the astronomical julian date
+   * @return the astronomical julian date when the longitude of the Sun reaches the specified degree
+   * @throws IllegalStateException if the instant has not converged within the limit count of evaluations
+   */
+  public double of(final double longitude, final double julianDate) {
+    return solver.solve(EclipticLongitude.Sun::getLongitude, Astror.circulate(longitude), rate, julianDate);
+  }
+
+  /**
+   * returns the instants of the 24 solar terms in the year, which ordered by the date ( from Shokan ( 285&deg; ) to Toji ( 270&deg; ) ) .
+   *
+   * @param year the year
+   * @return the astronomical julian dates of the 24 solar terms
+   * @throws IllegalStateException if the instant has not converged within the limit count of evaluations
+   */
+  public double[] ofYear(final int year) {
+    final double firstDayOfYear = Deamtiet.julian.ofEpochMilli(ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli());
+
+    return IntStream.range(0, 24).mapToDouble(i -> of(longitudeOf(i), firstDayOfYear + offset + (interval * i))).toArray();
+  }
+
+  /**
+   * returns the longitude of the Sun of the solar term .
+   *
+   * @param index the index of the solar term in the year ( 0: Shokan - 23: Toji )
+   * @return the longitude of the Sun
+   */
+  static double longitudeOf(final int index) {
+    return Astror.circulate(origin + (15.0 * index));
+  }
+}
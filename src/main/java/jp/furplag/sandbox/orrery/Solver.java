@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.function.DoubleUnaryOperator;
+
+import lombok.Getter;
+
+/**
+ * finding the instant when an angle which changes monotonically reaches to the target .
+ * <p>
+ * approaches the root by secant method, or Newton's method if the rate of the angle is given with the angle,
+ * and keeps the nearest instants before and after the root as a bracket ( falls back to bisection if the step go out of the bracket ) .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+@Getter
+final class Solver {
+
+  /**
+   * the angle and its rate at an instant .
+   *
+   * @author furplag
+   *
+   */
+  @FunctionalInterface
+  interface Motion {
+
+    /**
+     * stores the angle and its rate at the instant .
+     *
+     * @param julianDate the astronomical julian date
+     * @param destination the array to store the angle ( degrees ) , and the rate ( degrees per day )
+     */
+    void compute(double julianDate, double[] destination);
+  }
+
+  /**
+   * the margin of the error of the next instant, which is estimated from the curvature, to stop Newton's method without evaluating it .
+   * <p>
+   * the actual error of the phases of the Moon has been at most about 1.3 times the estimate ( except where Delta T changes ) ,
+   * so that the instant which stopped early stays within about a tenth of the tolerance, as well as the instant which evaluated once more .
+   * </p>
+   */
+  static final double marginOfCurvature = 16;
+
+  /**
+   * the limit of the span ( in days ) between the last two instants, to estimate the curvature from the change of the rate .
+   * <p>
+   * the rate of the elongation of the Moon varies in the anomalistic month ( about 27.6 days ) , so that the change of the rate
+   * over a few days does not follow the curvature at the instant ( the actual error reached 25 times the tolerance ) .
+   * </p>
+   */
+  static final double spanOfCurvature = 1;
+
+  /** the tolerance of the instant ( in days ) . */
+  private final double tolerance;
+
+  /** the limit count of evaluation of the angle to find one root . */
+  private final int maxEvaluations;
+
+  Solver(final double tolerance, final int maxEvaluations) {
+    if (!(tolerance > 0)) {
+      throw new IllegalArgumentException("tolerance must be a positive number: " + tolerance);
+    } else if (maxEvaluations < 1) {
+      throw new IllegalArgumentException("maxEvaluations must be a positive number: " + maxEvaluations);
+    }
+    this.tolerance = tolerance;
+    this.maxEvaluations = maxEvaluations;
+  }
+
+  /**
+   * returns the lag of angles in range of -180&deg; - 180&deg; .
+   *
+   * @param degree the angle
+   * @param target the angle to reach
+   * @return the lag of angles in range of -180&deg; - 180&deg;
+   */
+  static double lag(final double degree, final double target) {
+    final double lag = Astror.circulate(degree - target);
+
+    return lag < 180.0 ? lag : lag - 360.0;
+  }
+
+  /**
+   * returns the instant ( the nearest of the guess ) when the angle reaches to the target .
+   * <p>the iteration converges if the step, or the bracket of the root ( e.g. where the angle jumps ) is within the tolerance .</p>
+   *
+   * @param angle the angle at the instant, which increases monotonically
+   * @param target the angle to reach
+   * @param rate the rate of angle ( degrees per day ) roughly
+   * @param julianDate the astronomical julian date to start finding
+   * @return the astronomical julian date when the angle reaches to the target
+   * @throws IllegalStateException if the iteration has not converged within {@link #maxEvaluations}
+   */
+  double solve(final DoubleUnaryOperator angle, final double target, final double rate, final double julianDate) {
+    final long start = Telemetry.start();
+    double x0 = julianDate, f0 = lag(angle.applyAsDouble(x0), target);
+    double x1 = x0 - f0 / rate;
+    double lower = f0 < 0 ? x0 : Double.NEGATIVE_INFINITY, upper = f0 > 0 ? x0 : Double.POSITIVE_INFINITY;
+    int evaluations = 1;
+    for (; evaluations < maxEvaluations && Math.abs(x1 - x0) > tolerance; evaluations++) {
+      final double f1 = lag(angle.applyAsDouble(x1), target);
+      if (f1 == 0) {
+        Telemetry.Probe.Solve.record(start, evaluations + 1);
+
+        return x1;
+      } else if (f1 < 0) {
+        lower = Math.max(lower, x1);
+      } else {
+        upper = Math.min(upper, x1);
+      }
+      double x2 = f1 == f0 ? x1 - f1 / rate : x1 - f1 * (x1 - x0) / (f1 - f0);
+      if (!(lower <= x2 && x2 <= upper)) {
+        x2 = Double.isInfinite(lower) || Double.isInfinite(upper) ? x1 - f1 / rate : (lower + upper) / 2.0;
+      }
+      x0 = x1;
+      f0 = f1;
+      x1 = x2;
+    }
+    Telemetry.Probe.Solve.record(start, evaluations);
+    if (Math.abs(x1 - x0) > tolerance && !(upper - lower <= tolerance)) {
+      throw notConverged(target, julianDate, x1);
+    }
+
+    return x1;
+  }
+
+  /**
+   * returns the instant ( the nearest of the guess ) when the angle reaches to the target, by Newton's method with the exact rate .
+   * <p>
+   * the error of the next instant is about the curvature ( estimated from the change of the rate between the last two instants )
+   * times the square of the step, so that stops without evaluating the next instant if it is surely within the tolerance
+   * ( see {@link #marginOfCurvature} and {@link #spanOfCurvature} ) .
+   * the iteration converges if the step, or the bracket of the root ( e.g. where the angle jumps ) is within the tolerance .
+   * </p>
+   *
+   * @param motion the angle and its rate at the instant, which increases monotonically
+   * @param target the angle to reach
+   * @param rate the rate of angle ( degrees per day ) roughly, which is used only if the exact rate is not positive
+   * @param julianDate the astronomical julian date to start finding
+   * @return the astronomical julian date when the angle reaches to the target
+   * @throws IllegalStateException if the iteration has not converged within {@link #maxEvaluations}
+   */
+  double solve(final Motion motion, final double target, final double rate, final double julianDate) {
+    final long start = Telemetry.start();
+    final double[] angle = new double[2];
+    double x = julianDate, lower = Double.NEGATIVE_INFINITY, upper = Double.POSITIVE_INFINITY, step = Double.POSITIVE_INFINITY;
+    double previous = Double.NaN, previousRate = Double.NaN;
+    boolean stopped = false;
+    int evaluations = 0;
+    while (evaluations < maxEvaluations && Math.abs(step) > tolerance) {
+      if (evaluations > 0) {
+        x = stepOf(x, step, lower, upper);
+      }
+      motion.compute(x, angle);
+      evaluations++;
+      final double f = lag(angle[0], target);
+      if (f == 0) {
+        Telemetry.Probe.Solve.record(start, evaluations);
+
+        return x;
+      } else if (f < 0) {
+        lower = Math.max(lower, x);
+      } else {
+        upper = Math.min(upper, x);
+      }
+      step = f / (angle[1] > 0 ? angle[1] : rate);
+      if (angle[1] > 0 && previousRate > 0 && Math.abs(x - previous) < spanOfCurvature && (Math.abs(angle[1] - previousRate) / Math.abs(x - previous) / (2 * angle[1])) * step * step * marginOfCurvature < tolerance) {
+        stopped = true;
+        break;
+      }
+      previous = x;
+      previousRate = angle[1];
+    }
+    Telemetry.Probe.Solve.record(start, evaluations);
+    final double result = stepOf(x, step, lower, upper);
+    if (!stopped && Math.abs(step) > tolerance && !(upper - lower <= tolerance)) {
+      throw notConverged(target, julianDate, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * returns the exception which means that the iteration has not converged .
+   *
+   * @param target the angle to reach
+   * @param julianDate the astronomical julian date to start finding
+   * @param estimate the last estimate of the instant
+   * @return {@link IllegalStateException}
+   */
+  private IllegalStateException notConverged(final double target, final double julianDate, final double estimate) {
+    return new IllegalStateException(String.format("not converged within %d evaluations: %s from %s ( estimated %s ) .", maxEvaluations, target, julianDate, estimate));
+  }
+
+  /**
+   * returns the next instant, or the middle of the bracket if the step goes out of it .
+   *
+   * @param julianDate the astronomical julian date
+   * @param step the step ( in days )
+   * @param lower the instant before the root
+   * @param upper the instant after the root
+   * @return the next instant
+   */
+  private static double stepOf(final double julianDate, final double step, final double lower, final double upper) {
+    final double next = julianDate - step;
+
+    return (lower <= next && next <= upper) || Double.isInfinite(lower) || Double.isInfinite(upper) ? next : (lower + upper) / 2.0;
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.Getter;
+
+/**
+ * the longitudes of the planet at julian dates in fixed step, which advances each term of the series with the rotation recurrence .
+ * <p>
+ * in a fixed step, the argument of each term grows by a constant, so that the cosine ( and sine ) of the next is the rotation of current,
+ * instead of calling the {@link Cosine kernel} again . the terms are computed directly ( reseeded ) with the kernel of the series at the first,
+ * whenever Delta T changes, and every {@link #reseedInterval} steps, so the results at those instants are exactly the same as
+ * {@link EclipticLongitude#getLongitude(double)} . between reseeds, the magnitude of the rotation is renormalized every
+ * {@link #renormalizeInterval} steps, and the deviation from the direct evaluation is measured at each periodic reseed .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Stepper implements PrimitiveIterator.OfDouble {
+
+  /** the count of steps to recompute the terms directly . */
+  static final int reseedInterval = 1 << 12;
+
+  /** the count of steps to renormalize the magnitude of the rotation . */
+  static final int renormalizeInterval = 1 << 8;
+
+  /** days of a julian century . */
+  private static final double daysOfCentury = Deamtiet.daysOfYearOfJulian * 100.0;
+
+  /** the planet . */
+  @Getter
+  private final EclipticLongitude planet;
+
+  /** the series of the planet . */
+  private final EclipticLongitude.Series series;
+
+  /** the first julian date . */
+  private final double start;
+
+  /** days between julian dates . */
+  private final double step;
+
+  /** the index to stop ( exclusive ) . */
+  private final long fence;
+
+  /** the cosine of the argument of each term, at current . */
+  private final double[] cosine;
+
+  /** the sine of the argument of each term, at current . */
+  private final double[] sine;
+
+  /** the cosine of the growth of the argument of each term, in a step . */
+  private final double[] cosineOfStep;
+
+  /** the sine of the growth of the argument of each term, in a step . */
+  private final double[] sineOfStep;
+
+  /** the index of next . */
+  @Getter
+  private long index;
+
+  /** Delta T ( days ) at the last reseed . */
+  private double deltaOfT = Double.NaN;
+
+  /** the count of steps from the last reseed . */
+  private int steps;
+
+  /** the count of reseeds . */
+  @Getter
+  private long reseeds;
+
+  /** the maximum deviation ( degrees ) from the direct evaluation, which measured at periodic reseeds . */
+  @Getter
+  private double maxDeviation;
+
+  /**
+   * the longitudes of the planet at julian dates in fixed step .
+   *
+   * @param planet the planet
+   * @param start the first astronomical julian date ( inclusive )
+   * @param end the last astronomical julian date ( exclusive )
+   * @param step days between julian dates
+   * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+   */
+  public Stepper(final EclipticLongitude planet, final double start, final double end, final double step) {
+    fence = EclipticLongitude.Range.fenceOf(start, end, step);
+    this.planet = Objects.requireNonNull(planet);
+    series = planet.getSeries();
+    this.start = start;
+    this.step = step;
+    final int size = series.size();
+    cosine = new double[size];
+    sine = new double[size];
+    cosineOfStep = new double[size];
+    sineOfStep = new double[size];
+    for (int i = 0; i < size; i++) {
+      final double growth = series.angularVelocity[i] * (step / daysOfCentury) * Astror.radianizr;
+      cosineOfStep[i] = Math.cos(growth);
+      sineOfStep[i] = Math.sin(growth);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean hasNext() {
+    return index < fence;
+  }
+
+  /**
+   * returns the julian date of the index .
+   *
+   * @param index the index of julian date in the range
+   * @return the astronomical julian date
+   */
+  public double julianDateOf(final long index) {
+    return start + index * step;
+  }
+
+  /**
+   * returns the longitude at next julian date .
+   *
+   * @return longitude of the planet
+   */
+  @Override
+  public double nextDouble() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final double julianDate = julianDateOf(index++);
+    final double delta = Astror.getDeltaOfT(julianDate);
+    final double terrestrialTime = (julianDate - Deamtiet.j2000 + delta) / daysOfCentury;
+    final boolean periodic = steps >= reseedInterval;
+    if (periodic || Double.doubleToLongBits(delta) != Double.doubleToLongBits(deltaOfT)) {
+      if (periodic) {
+        advance();
+        final double recurrence = sum(terrestrialTime);
+        reseed(terrestrialTime);
+        maxDeviation = Math.max(maxDeviation, Math.abs(recurrence - sum(terrestrialTime)));
+      } else {
+        reseed(terrestrialTime);
+      }
+      deltaOfT = delta;
+    } else {
+      advance();
+    }
+
+    return Astror.circulate(Astror.circulate(sum(terrestrialTime)));
+  }
+
+  /**
+   * rotates each term for a step .
+   */
+  private void advance() {
+    final boolean renormalize = ++steps % renormalizeInterval == 0;
+    for (int i = 0; i < cosine.length; i++) {
+      final double c = cosine[i], s = sine[i];
+      double nextCosine = c * cosineOfStep[i] - s * sineOfStep[i];
+      double nextSine = s * cosineOfStep[i] + c * sineOfStep[i];
+      if (renormalize) {
+        final double scale = (3 - (nextCosine * nextCosine + nextSine * nextSine)) / 2;
+        nextCosine *= scale;
+        nextSine *= scale;
+      }
+      cosine[i] = nextCosine;
+      sine[i] = nextSine;
+    }
+  }
+
+  /**
+   * computes each term directly, with the kernel of cosine of the series .
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   */
+  private void reseed(final double terrestrialTime) {
+    final double[] seed = new double[2];
+    for (int i = 0; i < cosine.length; i++) {
+      series.cosine.cosAndSin((series.angularVelocity[i] * terrestrialTime) + series.initialPhase[i], seed, 0);
+      cosine[i] = seed[0];
+      sine[i] = seed[1];
+    }
+    steps = 0;
+    reseeds++;
+  }
+
+  /**
+   * returns the sum of the terms, in the same way as {@link EclipticLongitude.Series#estimate(double)} .
+   *
+   * @param terrestrialTime T (terrestrialized julian date)
+   * @return the sum of the terms
+   */
+  private double sum(final double terrestrialTime) {
+    double sum = 0, compensation = 0, simpleSum = 0;
+    for (int i = 0; i < cosine.length; i++) {/* @formatter:off */
+      final double value = (series.exclusive[i] ? terrestrialTime * series.amplitude[i] : series.amplitude[i]) * cosine[i];
+      final double compensated = value - compensation;
+      final double velvel = sum + compensated;
+      compensation = (velvel - sum) - compensated;
+      sum = velvel;
+      simpleSum += value;
+    /* @formatter:on */}
+    final double result = sum - compensation;
+
+    return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+  }
+}
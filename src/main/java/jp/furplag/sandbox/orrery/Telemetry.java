@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * instrumentation for the entry points of computation .
+ * <p>
+ * disabled in default ( enable with the system property {@value #property} , or {@link #setEnabled(boolean)} ) ,
+ * then costs only a volatile read for each call . if enabled, counts calls, latency and evaluations of root finding for each {@link Probe},
+ * hits of caches for each {@link Cache}, and also commits {@link ComputationEvent} to JDK Flight Recorder if the event is enabled in the recording .
+ * those are exposed through the MXBean ( {@value #objectName} ) with {@link #register()} .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Telemetry implements TelemetryMXBean {
+
+  /** the system property to enable in default . */
+  static final String property = "jp.furplag.sandbox.orrery.telemetry";
+
+  /** the name of MXBean . */
+  static final String objectName = "jp.furplag.sandbox.orrery:type=Telemetry";
+
+  /** the count of buckets of the latency histogram . */
+  static final int buckets = Long.SIZE;
+
+  /** enabled, or not . */
+  private static volatile boolean enabled = Boolean.getBoolean(property);
+
+  /** the instance for MXBean . */
+  private static final Telemetry instance = new Telemetry();
+
+  /**
+   * the entry points of computation .
+   *
+   * @author furplag
+   *
+   */
+  public static enum Probe {
+    /** {@link EclipticLongitude#getLongitude(double)} . */
+    Longitude,
+    /** {@link DeltaT#estimate(double)} . */
+    DeltaT,
+    /** {@link Precession.Rotation#compute(double, double, double[], int)} . */
+    Precession,
+    /** root finding of {@link SolarTerm} and {@link LunarPhase} . */
+    Solve;
+
+    /** the count of calls . */
+    private final LongAdder calls = new LongAdder();
+
+    /** the sum of latency ( nanoseconds ) . */
+    private final LongAdder nanos = new LongAdder();
+
+    /** the sum of evaluations . */
+    private final LongAdder evaluations = new LongAdder();
+
+    /** the count of calls for each latency, the bucket n contains the latency in [ 2<sup>n - 1</sup>, 2<sup>n</sup> ) nanoseconds . */
+    private final LongAdder[] histogram = Arrays.stream(new LongAdder[buckets]).map(nope -> new LongAdder()).toArray(LongAdder[]::new);
+
+    /**
+     * records a call .
+     *
+     * @param start the result of {@link Telemetry#start()}
+     */
+    void record(final long start) {
+      record(start, 0);
+    }
+
+    /**
+     * records a call .
+     *
+     * @param start the result of {@link Telemetry#start()}
+     * @param evaluations the count of evaluations in the call
+     */
+    void record(final long start, final int evaluations) {
+      if (start == 0) {
+        return;
+      }
+      final long latency = Math.max(System.nanoTime() - start, 0);
+      calls.increment();
+      nanos.add(latency);
+      this.evaluations.add(evaluations);
+      histogram[buckets - 1 - Math.min(Long.numberOfLeadingZeros(latency), buckets - 1)].increment();
+      final ComputationEvent event = new ComputationEvent();
+      if (event.shouldCommit()) {
+        event.probe = name();
+        event.latency = latency;
+        event.evaluations = evaluations;
+        event.commit();
+      }
+    }
+
+    /** reset all of counters . */
+    private void reset() {
+      calls.reset();
+      nanos.reset();
+      evaluations.reset();
+      Arrays.stream(histogram).forEach(LongAdder::reset);
+    }
+  }
+
+  /**
+   * the caches of computation .
+   *
+   * @author furplag
+   *
+   */
+  public static enum Cache {
+    /** the tables of {@link Kyureki} . */
+    Kyureki,
+    /** the rotations of {@link Precession.Rotation#of(double)} . */
+    Rotation,
+    /** the longitudes of {@link Memoized} . */
+    Longitude,
+    /** the nutations of {@link Equatorial.Nutation#of(double)} . */
+    Nutation;
+
+    /** the count of hits . */
+    private final LongAdder hits = new LongAdder();
+
+    /** the count of misses . */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * records a lookup .
+     *
+     * @param hit the cache hit, or not
+     */
+    void record(final boolean hit) {
+      if (enabled) {
+        (hit ? hits : misses).increment();
+      }
+    }
+
+    /**
+     * returns the ratio of hits .
+     *
+     * @return the ratio of hits, or NaN if never looked up
+     */
+    double hitRatio() {
+      final long hit = hits.sum(), lookup = hit + misses.sum();
+
+      return lookup == 0 ? Double.NaN : hit / (double) lookup;
+    }
+
+    /** reset all of counters . */
+    private void reset() {
+      hits.reset();
+      misses.reset();
+    }
+  }
+
+  /**
+   * the event of JDK Flight Recorder for a call of {@link Probe} .
+   *
+   * @author furplag
+   *
+   */
+  @Name("jp.furplag.sandbox.orrery.Computation")
+  @Label("Computation")
+  @Category("Orrery")
+  @Description("a call of the entry point of computation")
+  @StackTrace(false)
+  static final class ComputationEvent extends Event {
+
+    /** the name of {@link Probe} . */
+    @Label("Probe")
+    String probe;
+
+    /** the latency . */
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    /** the count of evaluations in root finding . */
+    @Label("Evaluations")
+    int evaluations;
+  }
+
+  /** no need to instantiate, except the MXBean . */
+  private Telemetry() {}
+
+  /**
+   * returns the start time of a call, or zero if disabled .
+   *
+   * @return the start time of a call, or zero if disabled
+   */
+  static long start() {
+    return enabled ? Math.max(System.nanoTime(), 1) : 0;
+  }
+
+  /**
+   * returns the instance of MXBean .
+   *
+   * @return {@link TelemetryMXBean}
+   */
+  public static TelemetryMXBean getInstance() {
+    return instance;
+  }
+
+  /**
+   * registers the MXBean to the platform MBean server, if not yet .
+   *
+   * @return the name of MXBean
+   * @throws JMException if failed to register
+   */
+  public static ObjectName register() throws JMException {
+    final ObjectName name = new ObjectName(objectName);
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    synchronized (instance) {
+      if (!server.isRegistered(name)) {
+        server.registerMBean(instance, name);
+      }
+    }
+
+    return name;
+  }
+
+  /**
+   * unregisters the MXBean from the platform MBean server, if registered .
+   *
+   * @throws JMException if failed to unregister
+   */
+  public static void unregister() throws JMException {
+    final ObjectName name = new ObjectName(objectName);
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    synchronized (instance) {
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setEnabled(final boolean enabled) {
+    Telemetry.enabled = enabled;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, Long> getCalls() {
+    return of(Probe.class, probe -> probe.calls.sum());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, Double> getMeanLatencies() {
+    return of(Probe.class, probe -> {/* @formatter:off */
+      final long calls = probe.calls.sum();
+      return calls == 0 ? Double.NaN : probe.nanos.sum() / (double) calls;
+    /* @formatter:on */});
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, long[]> getLatencyHistograms() {
+    return of(Probe.class, probe -> Arrays.stream(probe.histogram).mapToLong(LongAdder::sum).toArray());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getEvaluationsPerSolve() {
+    final long solves = Probe.Solve.calls.sum();
+
+    return solves == 0 ? Double.NaN : Probe.Solve.evaluations.sum() / (double) solves;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, Double> getHitRatios() {
+    return of(Cache.class, Cache::hitRatio);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    Arrays.stream(Probe.values()).forEach(Probe::reset);
+    Arrays.stream(Cache.values()).forEach(Cache::reset);
+  }
+
+  /**
+   * returns the values for each constant of the enum, in order of declaration .
+   *
+   * @param <E> the type of enum
+   * @param <V> the type of value
+   * @param type the class of enum
+   * @param value the function to get the value
+   * @return the values for each name of constants
+   */
+  private static <E extends Enum<E>, V> Map<String, V> of(final Class<E> type, final Function<E, V> value) {
+    final Map<String, V> result = new LinkedHashMap<>();
+    Arrays.stream(type.getEnumConstants()).forEach(constant -> result.put(constant.name(), value.apply(constant)));
+
+    return Collections.unmodifiableMap(result);
+  }
+}
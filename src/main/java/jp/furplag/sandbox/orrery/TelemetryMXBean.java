@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import java.util.Map;
+
+/**
+ * the MXBean of {@link Telemetry} .
+ *
+ * @author furplag
+ *
+ */
+public interface TelemetryMXBean {
+
+  /**
+   * returns enabled, or not .
+   *
+   * @return enabled, or not
+   */
+  boolean isEnabled();
+
+  /**
+   * switch the instrumentation .
+   *
+   * @param enabled enabled, or not
+   */
+  void setEnabled(boolean enabled);
+
+  /**
+   * returns the count of calls for each probe .
+   *
+   * @return the count of calls for each probe
+   */
+  Map<String, Long> getCalls();
+
+  /**
+   * returns the mean latency ( nanoseconds ) for each probe .
+   *
+   * @return the mean latency for each probe
+   */
+  Map<String, Double> getMeanLatencies();
+
+  /**
+   * returns the latency histogram for each probe, the bucket n contains the count of calls in [ 2<sup>n - 1</sup>, 2<sup>n</sup> ) nanoseconds .
+   *
+   * @return the latency histogram for each probe
+   */
+  Map<String, long[]> getLatencyHistograms();
+
+  /**
+   * returns the mean count of evaluations for each root finding .
+   *
+   * @return the mean count of evaluations, or NaN if never solved
+   */
+  double getEvaluationsPerSolve();
+
+  /**
+   * returns the ratio of hits for each cache .
+   *
+   * @return the ratio of hits for each cache
+   */
+  Map<String, Double> getHitRatios();
+
+  /** reset all of counters . */
+  void reset();
+}
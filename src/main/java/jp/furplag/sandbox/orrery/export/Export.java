@@ -0,0 +1,366 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import jp.furplag.sandbox.orrery.EclipticLongitude;
+import jp.furplag.sandbox.orrery.Moment;
+import jp.furplag.sandbox.time.Deamtiet;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * exports the longitudes of the Sun and the Moon ( and optionally, Delta T and angles of precession ) at julian dates in fixed step, into a file .
+ * <p>
+ * rows are computed in parallel by chunks of {@value #chunkSize}, and written in order of julian date through {@link FileChannel} with direct buffers .
+ * the binary format is fixed-width, each row is a sequence of little-endian doubles in order of {@link #getColumns()} without any header .
+ * </p>
+ *
+ * @author furplag
+ *
+ */
+public final class Export {
+
+  /** the count of rows in a chunk . */
+  static final int chunkSize = 1 << 15;
+
+  /** the maximum length of a value in CSV, which is the longest of {@link Double#toString(double)} and a separator . */
+  private static final int widthOfText = 25;
+
+  /**
+   * the format of the file .
+   *
+   * @author furplag
+   *
+   */
+  public enum Format {
+    /** comma separated values with the header . */
+    Csv,
+    /** fixed-width rows of little-endian doubles . */
+    Binary;
+  }
+
+  /**
+   * the columns of the row .
+   *
+   * @author furplag
+   *
+   */
+  @RequiredArgsConstructor
+  public enum Column {
+    /** the astronomical julian date . */
+    JulianDate("jd"),
+    /** the longitude of the Sun ( in degrees ) . */
+    Sun("sun"),
+    /** the longitude of the Moon ( in degrees ) . */
+    Moon("moon"),
+    /** Delta T ( in seconds ) . */
+    DeltaT("delta_t"),
+    /** the angle of precession &zeta; ( in degrees ) . */
+    Zeta("zeta"),
+    /** the angle of precession &Zeta; ( in degrees ) . */
+    Z("z"),
+    /** the angle of precession &theta; ( in degrees ) . */
+    Theta("theta");
+
+    /** the name in the header of CSV . */
+    @Getter
+    private final String label;
+  }
+
+  /** the range of julian dates . */
+  private final EclipticLongitude.Range range;
+
+  /** the first astronomical julian date ( inclusive ) . */
+  @Getter
+  private final double start;
+
+  /** the last astronomical julian date ( exclusive ) . */
+  @Getter
+  private final double end;
+
+  /** days between julian dates . */
+  @Getter
+  private final double step;
+
+  /** the columns of the row . */
+  @Getter
+  private final List<Column> columns;
+
+  /** the format of the file . */
+  @Getter
+  private final Format format;
+
+  /**
+   * exports the longitudes of the Sun and the Moon .
+   *
+   * @param start the first astronomical julian date ( inclusive )
+   * @param end the last astronomical julian date ( exclusive )
+   * @param step days between julian dates
+   * @param deltaOfT exports Delta T, if true
+   * @param precession exports angles of precession, if true
+   * @param format the format of the file
+   * @throws IllegalArgumentException if the step is not positive, any of those are not finite, the step does not advance the start, or the count of julian dates overflows
+   */
+  public Export(final double start, final double end, final double step, final boolean deltaOfT, final boolean precession, final Format format) {
+    range = EclipticLongitude.Range.of(EclipticLongitude.Sun, start, end, step);
+    this.start = start;
+    this.end = end;
+    this.step = step;
+    final Set<Column> columns = EnumSet.of(Column.JulianDate, Column.Sun, Column.Moon);
+    if (deltaOfT) {
+      columns.add(Column.DeltaT);
+    }
+    if (precession) {
+      columns.addAll(EnumSet.of(Column.Zeta, Column.Z, Column.Theta));
+    }
+    this.columns = List.copyOf(columns);
+    this.format = Objects.requireNonNull(format);
+  }
+
+  /**
+   * returns the count of rows .
+   *
+   * @return the count of rows
+   */
+  public long getRows() {
+    return range.estimateSize();
+  }
+
+  /**
+   * writes rows into the file, which replaces existing one .
+   *
+   * @param path the path of the file
+   * @return the count of bytes written
+   * @throws IOException if failed to write
+   */
+  public long write(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      return write(channel);
+    }
+  }
+
+  /**
+   * writes rows into the channel from its current position .
+   * <p>computes at most twice the parallelism of chunks ahead of writing, and recycles those buffers .</p>
+   *
+   * @param channel the channel
+   * @return the count of bytes written
+   * @throws IOException if failed to write
+   */
+  public long write(final FileChannel channel) throws IOException {
+    long written = 0;
+    if (Format.Csv.equals(format)) {
+      written += writeFully(channel, ByteBuffer.wrap(columns.stream().map(Column::getLabel).collect(Collectors.joining(",", "", "\n")).getBytes(StandardCharsets.US_ASCII)));
+    }
+    final long chunks = (getRows() + chunkSize - 1) / chunkSize;
+    final int ahead = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+    final Deque<ByteBuffer> buffers = new ArrayDeque<>();
+    final Deque<CompletableFuture<ByteBuffer>> pending = new ArrayDeque<>();
+    try {
+      for (long chunk = 0; chunk < chunks || !pending.isEmpty();) {
+        if (chunk < chunks && pending.size() < ahead) {
+          final long index = chunk++ * chunkSize;
+          final ByteBuffer buffer = buffers.isEmpty() ? ByteBuffer.allocateDirect(capacity()).order(ByteOrder.LITTLE_ENDIAN) : buffers.pop();
+          pending.add(CompletableFuture.supplyAsync(() -> fill(index, (int) Math.min(chunkSize, getRows() - index), buffer)));
+        } else {
+          final ByteBuffer buffer = pending.poll().join();
+          written += writeFully(channel, buffer);
+          buffers.push(buffer.clear());
+        }
+      }
+    } catch (CompletionException e) {
+      pending.forEach(future -> future.cancel(false));
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+
+    return written;
+  }
+
+  /**
+   * returns the capacity of the buffer of a chunk .
+   *
+   * @return the capacity of the buffer of a chunk
+   */
+  private int capacity() {
+    return chunkSize * columns.size() * (Format.Csv.equals(format) ? widthOfText : Double.BYTES);
+  }
+
+  /**
+   * computes rows of the chunk into the buffer .
+   *
+   * @param index the index of the first row
+   * @param length the count of rows
+   * @param buffer the buffer, which is flipped after filled
+   * @return buffer
+   */
+  private ByteBuffer fill(final long index, final int length, final ByteBuffer buffer) {
+    final double[] values = new double[columns.size() * length];
+    final double[] julianDates = new double[length];
+    final double[] sun = new double[length], moon = new double[length];
+    final boolean extended = columns.size() > 3;
+    final boolean precession = columns.contains(Column.Zeta);
+    for (int i = 0; i < length; i++) {
+      julianDates[i] = range.julianDateOf(index + i);
+    }
+    EclipticLongitude.Sun.getLongitudes(julianDates, sun);
+    EclipticLongitude.Moon.getLongitudes(julianDates, moon);
+    for (int i = 0, j = 0; i < length; i++) {
+      // Delta T and precession share the time scale of the instant .
+      final Moment moment = extended ? Moment.of(julianDates[i]) : null;
+      final double[] angles = precession ? moment.getAngles() : null;
+      for (Column column : columns) {
+        switch (column) {/* @formatter:off */
+          case JulianDate: values[j++] = julianDates[i]; break;
+          case Sun: values[j++] = sun[i]; break;
+          case Moon: values[j++] = moon[i]; break;
+          case DeltaT: values[j++] = moment.getDeltaOfT(); break;
+          case Zeta: values[j++] = angles[0]; break;
+          case Z: values[j++] = angles[1]; break;
+          default: values[j++] = angles[2];
+        /* @formatter:on */}
+      }
+    }
+    if (Format.Binary.equals(format)) {
+      buffer.asDoubleBuffer().put(values);
+      buffer.position(values.length * Double.BYTES);
+    } else {
+      final StringBuilder text = new StringBuilder(values.length * widthOfText);
+      for (int i = 0; i < values.length; i++) {
+        text.append(values[i]).append((i + 1) % columns.size() == 0 ? '\n' : ',');
+      }
+      encode(text, buffer);
+    }
+
+    return buffer.flip();
+  }
+
+  /**
+   * encodes the text into the buffer in US-ASCII .
+   *
+   * @param text the text
+   * @param buffer the buffer
+   * @throws IllegalStateException if the buffer overflows ( the text is longer than {@link #widthOfText} per value ) , or the text is not in US-ASCII
+   */
+  static void encode(final CharSequence text, final ByteBuffer buffer) {
+    final CharsetEncoder encoder = StandardCharsets.US_ASCII.newEncoder();
+    CoderResult result = encoder.encode(CharBuffer.wrap(text), buffer, true);
+    if (result.isUnderflow()) {
+      result = encoder.flush(buffer);
+    }
+    if (result.isOverflow() || result.isError()) {
+      throw new IllegalStateException(String.format("failed to encode rows: %s .", result));
+    }
+  }
+
+  /**
+   * writes all remaining of the buffer .
+   *
+   * @param channel the channel
+   * @param buffer the buffer
+   * @return the count of bytes written
+   * @throws IOException if failed to write
+   */
+  private static long writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+    long written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer);
+    }
+
+    return written;
+  }
+
+  /**
+   * returns the julian date of the text, either of astronomical julian date, ISO date ( UTC ) or ISO instant .
+   *
+   * @param text the text
+   * @return the astronomical julian date
+   * @throws IllegalArgumentException if the text is not either of those
+   */
+  static double julianDateOf(final String text) {
+    try {
+      return Double.parseDouble(text);
+    } catch (NumberFormatException e) {
+      try {
+        return Deamtiet.julian.ofEpochMilli((text.contains("T") ? Instant.parse(text) : LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant()).toEpochMilli());
+      } catch (RuntimeException ex) {
+        throw new IllegalArgumentException(String.format("invalid julian date: %s .", text), ex);
+      }
+    }
+  }
+
+  /**
+   * returns whether the arguments are in the usage of {@link #main(String...)}, or not .
+   *
+   * @param args arguments
+   * @return true if four operands and known options, those are not both of {@code --csv} and {@code --binary}
+   */
+  static boolean isValid(final String... args) {
+    final List<String> options = Arrays.stream(args).filter(arg -> arg.startsWith("--")).collect(Collectors.toList());
+
+    return Arrays.stream(args).filter(arg -> !arg.startsWith("--")).count() == 4
+      && List.of("--csv", "--binary", "--delta-t", "--precession").containsAll(options)
+      && !options.containsAll(List.of("--csv", "--binary"));
+  }
+
+  /**
+   * exports longitudes into the file .
+   * <p>usage: {@code Export <from> <to> <step in days> <file> [--csv | --binary] [--delta-t] [--precession]},
+   * instants are either of astronomical julian date, ISO date ( UTC ) or ISO instant .</p>
+   *
+   * @param args arguments
+   * @throws IOException if failed to write
+   */
+  public static void main(final String... args) throws IOException {
+    final List<String> options = Arrays.stream(args).filter(arg -> arg.startsWith("--")).collect(Collectors.toList());
+    final String[] operands = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toArray(String[]::new);
+    if (!isValid(args)) {
+      System.err.println("usage: Export <from> <to> <step in days> <file> [--csv | --binary] [--delta-t] [--precession]");
+      System.exit(2);
+
+      return;
+    }
+    final Export export = new Export(julianDateOf(operands[0]), julianDateOf(operands[1]), Double.parseDouble(operands[2]), options.contains("--delta-t"), options.contains("--precession"), options.contains("--binary") ? Format.Binary : Format.Csv);
+    final long started = System.nanoTime();
+    final long written = export.write(Paths.get(operands[3]));
+    System.out.printf("%d rows ( %d bytes ) in %.3f seconds .%n", export.getRows(), written, (System.nanoTime() - started) / 1E9);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import jp.furplag.sandbox.orrery.EclipticLongitude;
+import lombok.Getter;
+
+/**
+ * merges the queries of the longitude which arrive within the window, into one batched computation of {@link EclipticLongitude#getLongitudes(double[], double[])} .
+ *
+ * @author furplag
+ *
+ */
+final class Batch {
+
+  /** the planet . */
+  @Getter
+  private final EclipticLongitude planet;
+
+  /** the window of merging ( in nanoseconds ) , or zero if never merges . */
+  @Getter
+  private final long window;
+
+  /** the timer of the window, which only triggers the computation, so that the windows of the other batches do not wait for it . */
+  private final ScheduledExecutorService timer;
+
+  /** the executor of the computation, which must not be the one of handlers those wait for the result ( e.g. {@link java.util.concurrent.ForkJoinPool#commonPool()} ) . */
+  private final Executor executor;
+
+  /** pending queries . */
+  private final Queue<Query> pending = new ConcurrentLinkedQueue<>();
+
+  /** whether the computation is scheduled, or not . */
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  /** the count of queries . */
+  private final LongAdder queries = new LongAdder();
+
+  /** the count of batched computation . */
+  private final LongAdder batches = new LongAdder();
+
+  /** a query of the longitude . */
+  private static final class Query extends CompletableFuture<double[]> {
+
+    /** astronomical julian dates . */
+    final double[] julianDates;
+
+    Query(final double[] julianDates) {
+      this.julianDates = julianDates;
+    }
+  }
+
+  /**
+   * merges the queries of the longitude .
+   *
+   * @param planet the planet
+   * @param window the window of merging ( in nanoseconds ) , or zero if never merges
+   * @param timer the timer of the window, which only triggers the computation
+   * @param executor the executor of the computation
+   */
+  Batch(final EclipticLongitude planet, final long window, final ScheduledExecutorService timer, final Executor executor) {
+    if (window < 0) {
+      throw new IllegalArgumentException(String.format("the window must be zero or positive: %d .", window));
+    }
+    this.planet = Objects.requireNonNull(planet);
+    this.window = window;
+    this.timer = Objects.requireNonNull(timer);
+    this.executor = Objects.requireNonNull(executor);
+  }
+
+  /**
+   * returns the longitudes of the planet, which computes in the batch with the other queries arrived within the window .
+   *
+   * @param julianDates astronomical julian dates
+   * @return the future of longitudes of the planet
+   */
+  CompletableFuture<double[]> submit(final double... julianDates) {
+    queries.increment();
+    if (window < 1) {
+      batches.increment();
+
+      return CompletableFuture.completedFuture(planet.getLongitudes(julianDates, new double[julianDates.length]));
+    }
+    final Query query = new Query(julianDates.clone());
+    pending.add(query);
+    if (scheduled.compareAndSet(false, true)) {
+      timer.schedule(this::trigger, window, TimeUnit.NANOSECONDS);
+    }
+
+    return query;
+  }
+
+  /**
+   * returns the count of queries .
+   *
+   * @return the count of queries
+   */
+  long getQueries() {
+    return queries.sum();
+  }
+
+  /**
+   * returns the count of batched computation .
+   *
+   * @return the count of batched computation
+   */
+  long getBatches() {
+    return batches.sum();
+  }
+
+  /**
+   * hands the computation to the executor, or computes in the timer if the executor rejects it .
+   */
+  private void trigger() {
+    try {
+      executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      drain();
+    }
+  }
+
+  /**
+   * computes the longitudes of all pending queries at once .
+   */
+  private void drain() {
+    // the queries which arrive after this, schedule the next computation .
+    scheduled.set(false);
+    final List<Query> queries = new ArrayList<>();
+    for (Query query = pending.poll(); query != null; query = pending.poll()) {
+      queries.add(query);
+    }
+    if (queries.isEmpty()) {
+      return;
+    }
+    batches.increment();
+    try {
+      int length = 0;
+      for (Query query : queries) {
+        length += query.julianDates.length;
+      }
+      final double[] julianDates = new double[length];
+      int offset = 0;
+      for (Query query : queries) {
+        System.arraycopy(query.julianDates, 0, julianDates, offset, query.julianDates.length);
+        offset += query.julianDates.length;
+      }
+      final double[] longitudes = planet.getLongitudes(julianDates, new double[length]);
+      offset = 0;
+      for (Query query : queries) {
+        final double[] result = new double[query.julianDates.length];
+        System.arraycopy(longitudes, offset, result, 0, result.length);
+        offset += result.length;
+        query.complete(result);
+      }
+    } catch (RuntimeException e) {
+      for (Query query : queries) {
+        query.completeExceptionally(e);
+      }
+    }
+  }
+}
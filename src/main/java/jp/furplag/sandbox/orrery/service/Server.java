@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import jp.furplag.sandbox.orrery.EclipticLongitude;
+import jp.furplag.sandbox.orrery.LunarPhase;
+import jp.furplag.sandbox.orrery.SolarTerm;
+import lombok.Getter;
+
+/**
+ * serves the longitude of the Sun and the Moon, solar terms and phases of the Moon over HTTP, with JDK built-in server .
+ * <p>
+ * all resources respond to GET in JSON, bad queries respond 400, and unknown resources respond 404 .
+ * </p>
+ * <dl>
+ * <dt>/longitude?planet=sun&amp;jd=2451545.0,2451545.5</dt>
+ * <dd>the longitudes of the planet ( sun or moon ) , which computes in the batch with the other queries arrived within the window .</dd>
+ * <dt>/solarterm?year=2020</dt>
+ * <dd>the instants of the 24 solar terms in the year .</dd>
+ * <dt>/phase?jd=2451545.0[&amp;phase=Full]</dt>
+ * <dd>the instant of the principal phase of the Moon ( the upcoming one, if not specified ) which comes next to the instant .</dd>
+ * </dl>
+ *
+ * @author furplag
+ *
+ */
+public final class Server implements AutoCloseable {
+
+  /** the default window of merging queries ( a millisecond ) . */
+  public static final long defaultWindow = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /** the default port . */
+  static final int defaultPort = 8080;
+
+  /** the limit count of julian dates in a query . */
+  static final int maxJulianDates = 1 << 16;
+
+  /** planets . */
+  private static final Map<String, EclipticLongitude> planets = Map.of("sun", EclipticLongitude.Sun, "moon", EclipticLongitude.Moon);
+
+  /** the bound address . */
+  @Getter
+  private final InetSocketAddress address;
+
+  /** the server . */
+  private final HttpServer server;
+
+  /** the executor, only if owns it . */
+  private final ExecutorService owned;
+
+  /** the timer of batches, which only triggers the computation in {@link ForkJoinPool#commonPool()} . */
+  private final ScheduledExecutorService timer;
+
+  /** batches of the planets . */
+  private final Map<String, Batch> batches;
+
+  /** the finder of solar terms . */
+  private final SolarTerm solarTerm = new SolarTerm();
+
+  /** the finder of phases of the Moon . */
+  private final LunarPhase lunarPhase = new LunarPhase();
+
+  /**
+   * serves with the executor of {@link #newExecutor()} in the default window .
+   *
+   * @param address the address to bind, the port zero means ephemeral one
+   * @throws IOException if failed to bind
+   */
+  public Server(final InetSocketAddress address) throws IOException {
+    this(address, null, defaultWindow);
+  }
+
+  /**
+   * serves .
+   *
+   * @param address the address to bind, the port zero means ephemeral one
+   * @param executor the executor of handlers, or null to use {@link #newExecutor()} which closes with the server
+   * @param window the window of merging queries of the longitude ( in nanoseconds ) , or zero if never merges
+   * @throws IOException if failed to bind
+   */
+  public Server(final InetSocketAddress address, final Executor executor, final long window) throws IOException {
+    if (window < 0) {
+      throw new IllegalArgumentException(String.format("the window must be zero or positive: %d .", window));
+    }
+    owned = executor == null ? newExecutor() : null;
+    timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "orrery-batch");
+      thread.setDaemon(true);
+
+      return thread;
+    });
+    batches = planets.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> new Batch(e.getValue(), window, timer, ForkJoinPool.commonPool())));
+    server = HttpServer.create(Objects.requireNonNull(address), 0);
+    server.setExecutor(owned == null ? executor : owned);
+    server.createContext("/longitude", handlerOf(this::longitude));
+    server.createContext("/solarterm", handlerOf(this::solarTerm));
+    server.createContext("/phase", handlerOf(this::phase));
+    server.createContext("/", exchange -> respond(exchange, 404, "{\"error\":\"not found .\"}"));
+    server.start();
+    this.address = server.getAddress();
+  }
+
+  /**
+   * returns a new executor, which runs each handler in a virtual thread if the runtime supports ( Java 21 or later ) ,
+   * or in a cached daemon thread otherwise .
+   *
+   * @return a new executor
+   */
+  public static ExecutorService newExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "orrery-handler");
+        thread.setDaemon(true);
+
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * returns the count of queries of the longitude .
+   *
+   * @return the count of queries of the longitude
+   */
+  public long getQueries() {
+    return batches.values().stream().mapToLong(Batch::getQueries).sum();
+  }
+
+  /**
+   * returns the count of batched computation of the longitude .
+   *
+   * @return the count of batched computation of the longitude
+   */
+  public long getBatches() {
+    return batches.values().stream().mapToLong(Batch::getBatches).sum();
+  }
+
+  /**
+   * stops the server .
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    timer.shutdownNow();
+    if (owned != null) {
+      owned.shutdownNow();
+    }
+  }
+
+  /**
+   * serves on the port ( default: {@value #defaultPort} ) , until the process terminates .
+   *
+   * @param args [ port [ window in milliseconds ] ]
+   * @throws IOException if failed to bind
+   */
+  public static void main(final String... args) throws IOException {
+    final int port = args.length > 0 ? Integer.parseInt(args[0]) : defaultPort;
+    final long window = args.length > 1 ? TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[1])) : defaultWindow;
+    final Server server = new Server(new InetSocketAddress(port), null, window);
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    System.out.printf("orrery serves on %s .%n", server.getAddress());
+  }
+
+  /**
+   * GET /longitude?planet=sun&amp;jd=2451545.0[,2451545.5...] .
+   *
+   * @param parameters parameters
+   * @return the response in JSON
+   */
+  private String longitude(final Map<String, String> parameters) {
+    final String planet = required(parameters, "planet").toLowerCase(Locale.ROOT);
+    final Batch batch = batches.get(planet);
+    if (batch == null) {
+      throw new IllegalArgumentException(String.format("unknown planet: %s .", planet));
+    }
+    final String jd = required(parameters, "jd");
+    // counts before splitting, so that a huge query is rejected without parsing .
+    final long count = jd.chars().filter(c -> c == ',').count() + 1;
+    if (count > maxJulianDates) {
+      throw new IllegalArgumentException(String.format("too many julian dates: %d .", count));
+    }
+    final double[] julianDates = Arrays.stream(jd.split(",")).mapToDouble(Server::julianDateOf).toArray();
+
+    return String.format("{\"planet\":\"%s\",\"julianDates\":%s,\"longitudes\":%s}", planet, arrayOf(julianDates), arrayOf(batch.submit(julianDates).join()));
+  }
+
+  /**
+   * GET /solarterm?year=2020 .
+   *
+   * @param parameters parameters
+   * @return the response in JSON
+   */
+  private String solarTerm(final Map<String, String> parameters) {
+    final int year = Integer.parseInt(required(parameters, "year"));
+
+    return String.format("{\"year\":%d,\"julianDates\":%s}", year, arrayOf(solarTerm.ofYear(year)));
+  }
+
+  /**
+   * GET /phase?jd=2451545.0[&amp;phase=Full] .
+   *
+   * @param parameters parameters
+   * @return the response in JSON
+   */
+  private String phase(final Map<String, String> parameters) {
+    final double julianDate = julianDateOf(required(parameters, "jd"));
+    final LunarPhase.Phase phase = parameters.containsKey("phase") ? LunarPhase.Phase.valueOf(parameters.get("phase")) : lunarPhase.upcoming(julianDate);
+
+    return String.format("{\"phase\":\"%s\",\"julianDate\":%s}", phase, lunarPhase.next(julianDate, phase));
+  }
+
+  /**
+   * returns the handler which responds the result of the function in JSON .
+   *
+   * @param function the resource
+   * @return the handler
+   */
+  private static HttpHandler handlerOf(final Function<Map<String, String>, String> function) {
+    return exchange -> {
+      int status = 200;
+      String body;
+      try {
+        if ("GET".equals(exchange.getRequestMethod())) {
+          body = function.apply(parametersOf(exchange.getRequestURI().getRawQuery()));
+        } else {
+          status = 405;
+          body = "{\"error\":\"method not allowed .\"}";
+        }
+      } catch (IllegalArgumentException e) {
+        status = 400;
+        body = String.format("{\"error\":\"%s\"}", escape(e.getMessage()));
+      } catch (RuntimeException e) {
+        status = 500;
+        body = String.format("{\"error\":\"%s\"}", escape(e.getMessage()));
+      }
+      respond(exchange, status, body);
+    };
+  }
+
+  /**
+   * sends the response, after discarding the request body to keep the connection alive .
+   *
+   * @param exchange the exchange
+   * @param status the status code
+   * @param body the response in JSON
+   * @throws IOException if failed to send
+   */
+  private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * returns the parameters of the query string .
+   *
+   * @param query the raw query string
+   * @return the parameters
+   */
+  static Map<String, String> parametersOf(final String query) {
+    if (query == null || query.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    final Map<String, String> parameters = new LinkedHashMap<>();
+    for (String parameter : query.split("&")) {
+      final int separator = parameter.indexOf('=');
+      parameters.put(decode(separator < 0 ? parameter : parameter.substring(0, separator)), separator < 0 ? "" : decode(parameter.substring(separator + 1)));
+    }
+
+    return parameters;
+  }
+
+  /**
+   * returns the value of the parameter .
+   *
+   * @param parameters parameters
+   * @param name the name of the parameter
+   * @return the value of the parameter
+   * @throws IllegalArgumentException if the parameter is not specified
+   */
+  private static String required(final Map<String, String> parameters, final String name) {
+    final String value = parameters.get(name);
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException(String.format("required parameter: %s .", name));
+    }
+
+    return value;
+  }
+
+  /**
+   * returns the julian date .
+   *
+   * @param value the julian date in string
+   * @return the astronomical julian date
+   * @throws IllegalArgumentException if the value is not a finite number
+   */
+  private static double julianDateOf(final String value) {
+    final double julianDate = Double.parseDouble(value.trim());
+    if (!Double.isFinite(julianDate)) {
+      throw new IllegalArgumentException(String.format("invalid julian date: %s .", value));
+    }
+
+    return julianDate;
+  }
+
+  /**
+   * returns the array in JSON .
+   *
+   * @param values values
+   * @return the array in JSON
+   */
+  private static String arrayOf(final double[] values) {
+    return Arrays.stream(values).mapToObj(Double::toString).collect(Collectors.joining(",", "[", "]"));
+  }
+
+  /**
+   * returns the decoded value .
+   *
+   * @param value the value in URL encoding
+   * @return the decoded value
+   */
+  private static String decode(final String value) {
+    return URLDecoder.decode(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * returns the value which escaped in the string of JSON .
+   *
+   * @param value the value
+   * @return the escaped value
+   */
+  private static String escape(final String value) {
+    return Objects.toString(value, "").replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
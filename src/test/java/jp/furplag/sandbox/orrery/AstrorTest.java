@@ -25,7 +25,11 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.GregorianCalendar;
 import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
@@ -50,9 +54,29 @@ public class AstrorTest {
     assertEquals(90d, Astror.circulate(90*25));
     assertEquals(270d, Astror.circulate(90*-25));
     assertEquals(123.123454321d, BigDecimal.valueOf(Astror.circulate(36123.123454321)).setScale(9, RoundingMode.HALF_UP).doubleValue());
+    new SplittableRandom(2018).doubles(100_000).map(r -> Math.scalb(r - .5, (int) (r * 1E6) % 64)).forEach(degree -> assertEquals(degree % 360.0 == 0 ? 0 : ((degree % 360.0) + (degree < 0.0 ? 360.0 : 0.0)), Astror.circulate(degree), Objects.toString(degree)));
     assertEquals(123.123454321d, BigDecimal.valueOf(Astror.circulate(-236.876545679)).setScale(9, RoundingMode.HALF_UP).doubleValue());
   }
 
+  @Test
+  void testRemainderOf() {
+    final DoubleStream random = new SplittableRandom(2018).doubles(200_000).map(r -> Math.scalb(r - .5, (int) (r * 1E7) % 80));
+    final DoubleStream multiples = LongStream.rangeClosed(-10_000, 10_000).mapToDouble(n -> n * 360.0);
+    final DoubleStream huge = LongStream.rangeClosed(-1_000, 1_000).mapToDouble(n -> Math.floor(0x1p52 / 360.0) * 360.0 + n * 360.0).flatMap(n -> DoubleStream.of(n, -n));
+    final DoubleStream boundaries = DoubleStream.of(0x1p52, 0x1p53, 0x1p63, 0x1p64, 1E300, Double.MAX_VALUE, Double.MIN_VALUE, Double.MIN_NORMAL, 360.0, 180.0).flatMap(n -> DoubleStream.of(n, -n));
+    Stream.of(random, multiples, huge, boundaries).flatMapToDouble(degrees -> degrees).flatMap(n -> DoubleStream.of(Math.nextDown(n), n, Math.nextUp(n))).forEach(degree -> {/* @formatter:off */
+      final double expected = degree % 360.0;
+      // exactly the same as the remainder of doubles, except the sign of zero .
+      if (expected == 0) {
+        assertEquals(0, Astror.remainderOf(degree), 0, Objects.toString(degree));
+      } else {
+        assertEquals(expected, Astror.remainderOf(degree), Objects.toString(degree));
+      }
+      assertEquals(expected == 0 ? 0 : (expected + (degree < 0.0 ? 360.0 : 0.0)), Astror.circulate(degree), Objects.toString(degree));
+    /* @formatter:on */});
+    DoubleStream.of(Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY).forEach(degree -> assertEquals(degree % 360.0, Astror.remainderOf(degree)));
+  }
+
   private static double decimalYear(final Method decimalYear, final GregorianCalendar forDate) {
     try {
       return (double) decimalYear.invoke(null, forDate);
@@ -73,4 +97,34 @@ public class AstrorTest {
       assertEquals(expected, actual, Objects.toString(y));
     /* @formatter:on */});
   }
+
+  @Test
+  void testYearizeArithmetically() {
+    new SplittableRandom(20180101L).doubles(1_000_000, Deamtiet.julian.ofEpochMilli(Instant.parse("-5000-01-01T00:00:00.000Z").toEpochMilli()), Deamtiet.julian.ofEpochMilli(Instant.parse("5000-12-31T00:00:00.000Z").toEpochMilli())).forEach(julianDate -> {/* @formatter:off */
+      final ZonedDateTime utc = Deamtiet.julian.toInstant(julianDate).atZone(ZoneOffset.UTC);
+      final double expected = (utc.getYear() == 0 ? -1 : utc.getYear() < 0 ? (utc.getYear() - 1) : utc.getYear()) + ((utc.getMonthValue() - .5) / 12);
+      assertEquals(expected, Astror.yearize(julianDate), Objects.toString(utc));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testYearizeAtMonthStart() {
+    final ZonedDateTime dateTime = Instant.parse("2001-01-01T00:00:00.000Z").atZone(ZoneOffset.UTC);
+    IntStream.rangeClosed(-5000, 5000).boxed().flatMap(y -> IntStream.rangeClosed(1, 12).mapToObj(m -> dateTime.withYear(y).withMonth(m))).mapToDouble(monthStart -> Deamtiet.julian.ofEpochMilli(monthStart.toInstant().toEpochMilli())).flatMap(julianDate -> DoubleStream.of(Math.nextDown(julianDate), julianDate, Math.nextUp(julianDate))).forEach(julianDate -> {/* @formatter:off */
+      final ZonedDateTime utc = Deamtiet.julian.toInstant(julianDate).atZone(ZoneOffset.UTC);
+      final double expected = (utc.getYear() == 0 ? -1 : utc.getYear() < 0 ? (utc.getYear() - 1) : utc.getYear()) + ((utc.getMonthValue() - .5) / 12);
+      assertEquals(expected, Astror.yearize(julianDate), Objects.toString(julianDate));
+    /* @formatter:on */});
+    assertEquals(-500 - 11.5 / 12, Astror.yearize(1538438.4999999998));
+  }
+
+  @Test
+  void testDaysOf() {
+    new SplittableRandom(20180101L).doubles(1_000_000, -100_000, 200_000).forEach(seconds -> {/* @formatter:off */
+      assertEquals(Deamtiet.julian.ofEpochMilli((long) (seconds * 1000)) - Deamtiet.epochAsJulianDate, Astror.daysOf(seconds), Objects.toString(seconds));
+    /* @formatter:on */});
+    assertEquals(0d, Astror.daysOf(0));
+    assertEquals(1d, Astror.daysOf(86400));
+    assertEquals(-1d, Astror.daysOf(-86400));
+  }
 }
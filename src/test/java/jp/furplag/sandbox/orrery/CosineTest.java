@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class CosineTest {
+
+  @Test
+  void test() {
+    final SplittableRandom random = new SplittableRandom(2018);
+    for (Cosine cosine : Cosine.values()) {/* @formatter:off */
+      DoubleStream.concat(
+        IntStream.rangeClosed(-720 * 64, 720 * 64).mapToDouble(d -> d / 64.0)
+      , DoubleStream.concat(random.doubles(1_000_000, -720, 720), random.doubles(1_000_000, -1E8, 1E8))
+      ).forEach(degree -> {
+        final double expected = Math.cos(Math.toRadians(Cosine.reduce(degree)));
+        assertEquals(expected, cosine.cos(degree), cosine.getMaxError(), cosine + ": " + degree);
+      });
+    /* @formatter:on */}
+  }
+
+  @Test
+  void testCosAndSin() {
+    final SplittableRandom random = new SplittableRandom(2018);
+    final double[] destination = new double[3];
+    for (Cosine cosine : Cosine.values()) {/* @formatter:off */
+      DoubleStream.concat(
+        IntStream.rangeClosed(-720 * 64, 720 * 64).mapToDouble(d -> d / 64.0)
+      , DoubleStream.concat(random.doubles(1_000_000, -720, 720), random.doubles(1_000_000, -1E8, 1E8))
+      ).forEach(degree -> {
+        assertSame(destination, cosine.cosAndSin(degree, destination, 1));
+        assertEquals(cosine.cos(degree), destination[1], cosine + ": " + degree);
+        assertEquals(Math.sin(Math.toRadians(Cosine.reduce(degree))), destination[2], cosine.getMaxError(), cosine + ": " + degree);
+      });
+    /* @formatter:on */}
+    new SplittableRandom(2018).doubles(100_000, -1E8, 1E8).forEach(degree -> assertEquals(Math.sin(degree * Astror.radianizr), Cosine.Intrinsic.cosAndSin(degree, destination, 0)[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> Cosine.Table.cosAndSin(0, destination, 2));
+  }
+
+  @Test
+  void testIntrinsic() {
+    new SplittableRandom(2018).doubles(100_000, -1E8, 1E8).forEach(degree -> assertEquals(Math.cos(degree * Astror.radianizr), Cosine.Intrinsic.cos(degree)));
+  }
+
+  @Test
+  void testReduce() {
+    new SplittableRandom(2018).doubles(100_000, -1E8, 1E8).forEach(degree -> {/* @formatter:off */
+      final double reduced = Cosine.reduce(degree);
+      assertTrue(reduced >= -180 && reduced <= 180, Objects.toString(degree));
+      assertEquals(0, Math.IEEEremainder(degree - reduced, 360), 0, Objects.toString(degree));
+    /* @formatter:on */});
+    assertEquals(0, Cosine.reduce(360 * 1234567));
+    assertEquals(-90, Cosine.reduce(-90));
+    assertEquals(90, Cosine.reduce(450));
+  }
+}
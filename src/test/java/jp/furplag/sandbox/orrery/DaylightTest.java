@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class DaylightTest {
+
+  /** Tokyo . */
+  private static final double latitude = 35 + 39 / 60.0, longitude = 139 + 44 / 60.0;
+
+  @Test
+  void test() {
+    // http://eco.mtk.nao.ac.jp/koyomi/dni/
+    final Daylight daylight = new Daylight(julianDateOf("2018-01-01T00:00+09:00"), 365);
+    final double[] actual = daylight.compute(latitude, longitude, new double[365 * Daylight.stride], 0);
+    Arrays.asList(/* @formatter:off */
+        new String[] {"2018-01-01T06:51+09:00", "2018-01-01T16:38+09:00"}
+      , new String[] {"2018-03-21T05:44+09:00", "2018-03-21T17:53+09:00"}
+      , new String[] {"2018-06-21T04:25+09:00", "2018-06-21T19:00+09:00"}
+      , new String[] {"2018-12-21T06:47+09:00", "2018-12-21T16:31+09:00"}
+    /* @formatter:on */).forEach(expect -> {
+      final int day = (int) Math.floor(julianDateOf(expect[0]) - daylight.getStart());
+      assertEquals(julianDateOf(expect[0]), actual[day * Daylight.stride], 1.0 / 1440, expect[0]);
+      assertEquals(julianDateOf(expect[1]), actual[day * Daylight.stride + 2], 1.0 / 1440, expect[1]);
+    });
+    IntStream.range(0, daylight.getDays()).forEach(day -> assertTrue(actual[day * 3] < actual[day * 3 + 1] && actual[day * 3 + 1] < actual[day * 3 + 2] && actual[day * 3 + 2] < daylight.getStart() + day + 1, Integer.toString(day)));
+  }
+
+  @Test
+  void testAltitude() {
+    final Daylight daylight = new Daylight(Deamtiet.j2000 - .5, 400);
+    final SplittableRandom random = new SplittableRandom(2018);
+    final double[] latitudes = random.doubles(50, -60, 60).toArray(), longitudes = random.doubles(50, -180, 180).toArray();
+    final double[] actual = daylight.compute(latitudes, longitudes);
+    assertEquals(latitudes.length * daylight.getDays() * Daylight.stride, actual.length);
+    IntStream.range(0, latitudes.length).forEach(i -> IntStream.range(0, daylight.getDays()).forEach(day -> {/* @formatter:off */
+      final int index = (i * daylight.getDays() + day) * Daylight.stride;
+      final String message = i + ":" + day;
+      assertEquals(Daylight.altitude, altitudeOf(latitudes[i], longitudes[i], actual[index]), .01, message);
+      assertEquals(0, hourAngleOf(longitudes[i], actual[index + 1]), .01, message);
+      assertEquals(Daylight.altitude, altitudeOf(latitudes[i], longitudes[i], actual[index + 2]), .01, message);
+      assertTrue(actual[index + 1] > daylight.getStart() + day - .1 && actual[index + 1] < daylight.getStart() + day + 1.1, message);
+    /* @formatter:on */}));
+    IntStream.range(0, latitudes.length).forEach(i -> assertArrayEquals(daylight.compute(latitudes[i], longitudes[i], new double[daylight.getDays() * Daylight.stride], 0), Arrays.copyOfRange(actual, i * daylight.getDays() * Daylight.stride, (i + 1) * daylight.getDays() * Daylight.stride)));
+  }
+
+  @Test
+  void testPolar() {
+    final Daylight daylight = new Daylight(julianDateOf("2018-06-21T00:00Z"), 1);
+    final double[] summer = daylight.compute(80, 15, new double[3], 0);
+    assertTrue(Double.isNaN(summer[0]) && Double.isNaN(summer[2]));
+    assertEquals(0, hourAngleOf(15, summer[1]), .01);
+    final double[] winter = daylight.compute(-80, 15, new double[3], 0);
+    assertTrue(Double.isNaN(winter[0]) && Double.isNaN(winter[2]));
+    assertFalse(Double.isNaN(winter[1]));
+  }
+
+  @Test
+  void testPolarCircle() {
+    final double[] solstice = new Daylight(2458260.5, 3).compute(68.74, 0, new double[9], 0);
+    IntStream.range(0, solstice.length).filter(i -> !Double.isNaN(solstice[i])).forEach(i -> assertEquals(2458260.5 + i / Daylight.stride, solstice[i], 1, Integer.toString(i)));
+    for (String start : new String[] {"2018-05-22T00:00Z", "2018-11-22T00:00Z"}) {
+      final Daylight daylight = new Daylight(julianDateOf(start), 60);
+      IntStream.rangeClosed(0, 48).mapToDouble(i -> 60 + i * .25).flatMap(latitude -> DoubleStream.of(latitude, -latitude)).forEach(latitude -> {
+        for (double longitude : new double[] {0, 25, 140}) {
+          final double[] actual = daylight.compute(latitude, longitude, new double[daylight.getDays() * Daylight.stride], 0);
+          IntStream.range(0, daylight.getDays()).forEach(day -> {/* @formatter:off */
+            final int index = day * Daylight.stride;
+            final String message = start + ":" + latitude + ":" + longitude + ":" + day;
+            assertFalse(Double.isNaN(actual[index + 1]), message);
+            for (int i : new int[] {index, index + 2}) {
+              if (!Double.isNaN(actual[i])) {
+                assertTrue(actual[i] >= daylight.getStart() + day - .5 && actual[i] <= daylight.getStart() + day + 1.5, message);
+                assertEquals(Daylight.altitude, altitudeOf(latitude, longitude, actual[i]), .01, message);
+              }
+            }
+          /* @formatter:on */});
+        }
+      });
+    }
+  }
+
+  @Test
+  void testEquationOfTime() {
+    final Daylight daylight = new Daylight(julianDateOf("2018-01-01T00:00Z"), 365);
+    final double[] minutes = IntStream.range(0, daylight.getDays()).mapToDouble(day -> daylight.getEquationOfTime(day) * 1440).toArray();
+    assertEquals(-3.2, minutes[0], .2);
+    assertEquals(16.4, Arrays.stream(minutes).max().getAsDouble(), .2);
+    assertEquals(-14.2, Arrays.stream(minutes).min().getAsDouble(), .2);
+    assertThrows(IndexOutOfBoundsException.class, () -> daylight.getEquationOfTime(365));
+  }
+
+  @Test
+  void testInvalid() {
+    final Daylight daylight = new Daylight(Deamtiet.j2000, 2);
+    assertThrows(IllegalArgumentException.class, () -> new Daylight(Double.NaN, 1));
+    assertThrows(IllegalArgumentException.class, () -> new Daylight(Deamtiet.j2000, 0));
+    assertThrows(IllegalArgumentException.class, () -> daylight.compute(90.1, 0, new double[6], 0));
+    assertThrows(IllegalArgumentException.class, () -> daylight.compute(0, Double.NaN, new double[6], 0));
+    assertThrows(IllegalArgumentException.class, () -> daylight.compute(new double[2], new double[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> daylight.compute(0, 0, new double[6], 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> daylight.compute(new double[2], new double[2], new double[11]));
+  }
+
+  /**
+   * returns the altitude of the Sun at the location, without the interpolation .
+   *
+   * @param latitude the latitude of the location
+   * @param longitude the longitude of the location
+   * @param julianDate the astronomical julian date
+   * @return the altitude of the Sun ( degrees )
+   */
+  private static double altitudeOf(final double latitude, final double longitude, final double julianDate) {
+    final double[] coordinate = Equatorial.ofSun(Moment.of(julianDate), new double[2], 0);
+    final double phi = Math.toRadians(latitude), delta = Math.toRadians(coordinate[1]), hourAngle = Math.toRadians(hourAngleOf(longitude, julianDate));
+
+    return Math.toDegrees(Math.asin(Math.sin(phi) * Math.sin(delta) + Math.cos(phi) * Math.cos(delta) * Math.cos(hourAngle)));
+  }
+
+  /**
+   * returns the hour angle of the Sun at the location, without the interpolation .
+   *
+   * @param longitude the longitude of the location
+   * @param julianDate the astronomical julian date
+   * @return the hour angle of the Sun in range of -180&deg; - 180&deg;
+   */
+  private static double hourAngleOf(final double longitude, final double julianDate) {
+    return Solver.lag(Daylight.siderealTimeOf(julianDate) + longitude, Equatorial.ofSun(Moment.of(julianDate), new double[2], 0)[0]);
+  }
+
+  private static double julianDateOf(final String dateTime) {
+    return Deamtiet.julian.ofEpochMilli(OffsetDateTime.parse(dateTime).toInstant().toEpochMilli());
+  }
+}
@@ -16,12 +16,17 @@
 package jp.furplag.sandbox.orrery;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.GregorianCalendar;
 import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
@@ -42,4 +47,49 @@ class DeltaTTest {
     });
     // @formatter:on
   }
+
+  @Test
+  void testOfMonths() {
+    final ZonedDateTime dateTime = Instant.parse("2001-01-15T00:00:00.000Z").atZone(ZoneOffset.UTC);
+    // @formatter:off
+    IntStream.rangeClosed(-600, 3100).filter(y -> y % 3 == 0).forEach(y -> IntStream.rangeClosed(1, 12).forEach(m -> {
+      final double expected = net.e175.klaus.solarpositioning.DeltaT.estimate(GregorianCalendar.from(dateTime.withYear(y).withMonth(m)));
+      final double actual = DeltaT.estimate(Deamtiet.julian.ofEpochMilli(dateTime.withYear(y).withMonth(m).toInstant().toEpochMilli()));
+      assertEquals(expected, actual, 15E-12, y + "-" + m);
+    }));
+    // @formatter:on
+  }
+
+  @Test
+  void testFormula() {
+    assertSame(DeltaT.Formula.of(-500.1), DeltaT.Formula.of(-5000));
+    assertSame(DeltaT.Formula.of(2150), DeltaT.Formula.of(-5000));
+    assertSame(DeltaT.Formula.of(Double.MAX_VALUE), DeltaT.Formula.of(-Double.MAX_VALUE));
+    assertNotSame(DeltaT.Formula.of(-500), DeltaT.Formula.of(-500.1));
+    assertSame(DeltaT.Formula.of(-500), DeltaT.Formula.of(499.9));
+    assertNotSame(DeltaT.Formula.of(499.9), DeltaT.Formula.of(500));
+    assertSame(DeltaT.Formula.of(2050), DeltaT.Formula.of(2149.9));
+    assertNotSame(DeltaT.Formula.of(2149.9), DeltaT.Formula.of(2150));
+    IntStream.rangeClosed(-500, 2149).forEach(y -> {/* @formatter:off */
+      final DeltaT.Formula formula = DeltaT.Formula.of(y + .5);
+      assertTrue(formula.range.isValidValue(y), Objects.toString(y));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testGrid() {
+    final double since = DeltaT.Grid.since;
+    final double until = since + DeltaT.Grid.centuries * DeltaT.Grid.daysOfCentury;
+    final double yearZero = Deamtiet.julian.ofEpochMilli(Instant.parse("0001-01-01T00:00:00.000Z").toEpochMilli());
+    // @formatter:off
+    new SplittableRandom(2018).doubles(1_000_000, since, until).forEach(julianDate -> {
+      final double expected = DeltaT.estimate(julianDate);
+      final double actual = DeltaT.Grid.estimate(julianDate);
+      assertEquals(expected, actual, Math.abs(julianDate - yearZero) < DeltaT.Grid.spacing * 2 ? DeltaT.Grid.maxError : 1.0, Objects.toString(julianDate));
+    });
+    DoubleStream.of(since - 1, until, until + 36525, Double.NaN).forEach(julianDate -> assertEquals(DeltaT.estimate(julianDate), DeltaT.Grid.estimate(julianDate), Objects.toString(julianDate)));
+    // @formatter:on
+    assertEquals(DeltaT.Grid.estimate(since + DeltaT.Grid.spacing * 3), DeltaT.Grid.smooth(since + DeltaT.Grid.spacing * 3), 1E-9);
+    assertEquals(Astror.toTerrestrialTime(Deamtiet.j2000), Astror.approximateTerrestrialTime(Deamtiet.j2000), 1E-9);
+  }
 }
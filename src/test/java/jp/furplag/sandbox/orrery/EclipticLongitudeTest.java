@@ -15,8 +15,12 @@
  */
 package jp.furplag.sandbox.orrery;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
@@ -26,8 +30,13 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
@@ -42,6 +51,72 @@ class EclipticLongitudeTest {
     assertFalse(new EclipticLongitude.Formula(0, 1, 2) {}.equals(new EclipticLongitude.Formula.Exclusive(0, 1, 2) {}));
   }
 
+  @Test
+  void testSeries() {
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      assertEquals(planet.getFormulas().length, planet.getSeries().size());
+      IntStream.rangeClosed(-25_000, 10_000).mapToDouble(t -> t / 1_000.0).forEach(terrestrialTime -> {
+        final double expected = planet.getFormulaAsStream().mapToDouble(f -> f.estimate(terrestrialTime)).sum();
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(planet.getSeries().estimate(terrestrialTime)), Objects.toString(terrestrialTime));
+      });
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testRate() {
+    final double delta = 1E-7;
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> new SplittableRandom(2018).doubles(1_000, -30, 10).forEach(terrestrialTime -> {/* @formatter:off */
+      final String message = Objects.toString(terrestrialTime);
+      final double[] estimated = planet.getSeries().estimate(terrestrialTime, new double[3], 1);
+      assertEquals(Double.doubleToLongBits(planet.getSeries().estimate(terrestrialTime)), Double.doubleToLongBits(estimated[1]), message);
+      assertEquals((planet.getSeries().estimate(terrestrialTime + delta) - planet.getSeries().estimate(terrestrialTime - delta)) / (delta * 2), estimated[2], Math.abs(estimated[2]) * 1E-6, message);
+    /* @formatter:on */}));
+    new SplittableRandom(2018).doubles(1_000, Ephemeris.since, Ephemeris.until).forEach(julianDate -> {/* @formatter:off */
+      final String message = Objects.toString(julianDate);
+      final double[] sun = EclipticLongitude.Sun.getLongitudeAndRate(julianDate, new double[2], 0);
+      final double[] moon = EclipticLongitude.Moon.getLongitudeAndRate(julianDate, new double[2], 0);
+      assertEquals(EclipticLongitude.Sun.getLongitude(julianDate), sun[0], message);
+      assertEquals(EclipticLongitude.Moon.getLongitude(julianDate), moon[0], message);
+      assertTrue(sun[1] > .95 && sun[1] < 1.05, message + ":" + sun[1]);
+      assertTrue(moon[1] > 11 && moon[1] < 16, message + ":" + moon[1]);
+      assertEquals(moon[1], EclipticLongitude.Moon.getRate(julianDate), message);
+    /* @formatter:on */});
+    assertThrows(IndexOutOfBoundsException.class, () -> EclipticLongitude.Sun.getLongitudeAndRate(Deamtiet.j2000, new double[2], 1));
+  }
+
+  @Test
+  void testRateOfKernel() {
+    Arrays.stream(Cosine.values()).forEach(cosine -> new SplittableRandom(2018).doubles(1_000, -30, 10).forEach(terrestrialTime -> {/* @formatter:off */
+      final EclipticLongitude.Series series = EclipticLongitude.Moon.withCosine(cosine).getSeries();
+      double expected = 0, error = 0;
+      for (int i = 0; i < series.size(); i++) {
+        final double argument = Math.toRadians(Cosine.reduce((series.angularVelocity[i] * terrestrialTime) + series.initialPhase[i]));
+        final double amplitude = series.exclusive[i] ? terrestrialTime * series.amplitude[i] : series.amplitude[i];
+        final double slope = amplitude * series.angularVelocity[i] * Astror.radianizr;
+        expected += (series.exclusive[i] ? series.amplitude[i] * Math.cos(argument) : 0) - slope * Math.sin(argument);
+        error += (Math.abs(slope) + (series.exclusive[i] ? Math.abs(series.amplitude[i]) : 0)) * cosine.getMaxError();
+      }
+      // the sine of the kernel, not derived from the cosine .
+      assertEquals(expected, series.estimate(terrestrialTime, new double[2], 0)[1], error + Math.abs(expected) * 1E-12, cosine + ": " + terrestrialTime);
+    /* @formatter:on */}));
+  }
+
+  @Test
+  void testGetLongitudes() {
+    final double[] julianDates = IntStream.rangeClosed(-500, 3000).mapToDouble(y -> Deamtiet.julian.ofEpochMilli(OffsetDateTime.parse("2001-01-01T00:00Z").withYear(y).plusMinutes(y * 997).toInstant().toEpochMilli())).toArray();
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final double[] longitudes = planet.getLongitudes(julianDates, new double[julianDates.length]);
+      IntStream.range(0, julianDates.length).forEach(i -> assertEquals(planet.getLongitude(julianDates[i]), longitudes[i], Objects.toString(julianDates[i])));
+      final double[] partial = new double[julianDates.length];
+      Arrays.fill(partial, -1);
+      planet.getLongitudes(julianDates, partial, 10, 1000);
+      IntStream.range(0, julianDates.length).forEach(i -> assertEquals(i < 10 || i >= 1010 ? -1 : longitudes[i], partial[i]));
+      assertArrayEquals(new double[0], planet.getLongitudes(new double[0], new double[0]));
+      assertThrows(IndexOutOfBoundsException.class, () -> planet.getLongitudes(julianDates, new double[julianDates.length - 1]));
+      assertThrows(IndexOutOfBoundsException.class, () -> planet.getLongitudes(julianDates, partial, 10, julianDates.length));
+    /* @formatter:on */});
+  }
+
   @Test
   void testOfSun() {
     Arrays.stream(new double[][] {/* @formatter:off */
@@ -188,4 +263,96 @@ class EclipticLongitudeTest {
       assertTrue(Duration.between(actual, expect.toInstant()).get(ChronoUnit.SECONDS) < 2, Objects.toString(expect.toInstant()) + ":" + Objects.toString(actual));
     /* @formatter:on */});
   }
+
+  @Test
+  void testRange() {
+    final double start = Deamtiet.j2000 - 1234.5, end = Deamtiet.j2000 + 4321.0, step = 0.7;
+    final int count = (int) Math.ceil((end - start) / step);
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final double[] expected = IntStream.range(0, count).mapToDouble(i -> planet.getLongitude(start + i * step)).toArray();
+      assertArrayEquals(expected, planet.range(start, end, step).toArray());
+      assertArrayEquals(expected, planet.range(start, end, step).parallel().toArray());
+
+      final double[] julianDates = new double[count], longitudes = new double[count];
+      final AtomicIntegerArray calls = new AtomicIntegerArray(count);
+      planet.range(start, end, step, (index, julianDate, longitude) -> {
+        julianDates[(int) index] = julianDate;
+        longitudes[(int) index] = longitude;
+        calls.incrementAndGet((int) index);
+      });
+      assertArrayEquals(expected, longitudes);
+      assertArrayEquals(IntStream.range(0, count).mapToDouble(i -> start + i * step).toArray(), julianDates);
+      IntStream.range(0, count).forEach(i -> assertEquals(1, calls.get(i)));
+    /* @formatter:on */});
+
+    final EclipticLongitude.Range range = EclipticLongitude.Range.of(EclipticLongitude.Sun, start, end, step);
+    assertEquals(count, range.estimateSize());
+    assertTrue(range.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    final EclipticLongitude.Range prefix = range.trySplit();
+    assertEquals(count / 2, prefix.estimateSize());
+    assertEquals(count - count / 2, range.estimateSize());
+    final double[] first = new double[1];
+    assertTrue(prefix.tryAdvance((double longitude) -> first[0] = longitude));
+    assertEquals(EclipticLongitude.Sun.getLongitude(start), first[0]);
+    assertEquals(count / 2 - 1, prefix.estimateSize());
+    assertTrue(range.tryAdvance((EclipticLongitude.Sink) (index, julianDate, longitude) -> assertEquals(count / 2, index)));
+    assertNull(EclipticLongitude.Range.of(EclipticLongitude.Sun, start, start + 10, 1).trySplit());
+
+    assertEquals(0, EclipticLongitude.Moon.range(end, start, step).count());
+    assertEquals(0, EclipticLongitude.Moon.range(start, start, step).count());
+    assertFalse(EclipticLongitude.Range.of(EclipticLongitude.Moon, start, start, step).tryAdvance((double longitude) -> {}));
+    assertEquals(1, EclipticLongitude.Moon.range(start, start + step, step).count());
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(start, end, 0));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(start, end, -1));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(Double.NaN, end, step));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(start, Double.POSITIVE_INFINITY, step, (index, julianDate, longitude) -> {}));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(2451545, Math.nextUp(2451545.0), 1E-300));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.range(0, 1E300, 1E-300));
+    assertThrows(NullPointerException.class, () -> EclipticLongitude.Moon.range(start, end, step, null));
+  }
+
+  @Test
+  void testTruncate() {
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      assertSame(planet, planet.truncate(EclipticLongitude.Precision.Full));
+      assertThrows(NullPointerException.class, () -> planet.truncate(null));
+      int previous = planet.getFormulas().length;
+      for (EclipticLongitude.Precision precision : Arrays.asList(EclipticLongitude.Precision.Hundredth, EclipticLongitude.Precision.Tenth)) {
+        final EclipticLongitude truncated = planet.truncate(precision);
+        final List<EclipticLongitude.Formula> formulas = Arrays.asList(truncated.getFormulas());
+        assertEquals(formulas.size(), truncated.getSeries().size());
+        assertTrue(formulas.size() < previous, precision + ": " + formulas.size());
+        previous = formulas.size();
+        assertEquals(planet.getFormulaAsStream().filter(formulas::contains).collect(Collectors.toList()), formulas);
+        assertTrue(planet.getFormulaAsStream().filter(f -> f instanceof EclipticLongitude.Formula.Exclusive).allMatch(formulas::contains));
+        assertTrue(planet.getFormulaAsStream().filter(f -> !formulas.contains(f)).mapToDouble(f -> Math.abs(f.amplitude)).sum() <= precision.getBudget());
+        new SplittableRandom(2018).doubles(100_000, -25, 10).forEach(terrestrialTime -> assertEquals(planet.getSeries().estimate(terrestrialTime), truncated.getSeries().estimate(terrestrialTime), precision.getBudget(), Objects.toString(terrestrialTime)));
+        new SplittableRandom(2018).doubles(10_000, Deamtiet.j2000 - 36525 * 25, Deamtiet.j2000 + 36525 * 10).forEach(julianDate -> assertEquals(0, Solver.lag(truncated.getLongitude(julianDate), planet.getLongitude(julianDate)), precision.getBudget(), Objects.toString(julianDate)));
+      }
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testWithCosine() {
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      assertSame(planet, planet.withCosine(Cosine.Intrinsic));
+      assertThrows(NullPointerException.class, () -> planet.withCosine(null));
+      for (Cosine cosine : Arrays.asList(Cosine.Polynomial, Cosine.Table)) {
+        final EclipticLongitude tuned = planet.withCosine(cosine);
+        assertEquals(planet.getFormulas().length, tuned.getSeries().size());
+        assertSame(cosine, tuned.getSeries().cosine);
+        assertSame(planet, tuned.withCosine(Cosine.Intrinsic));
+        assertSame(cosine, tuned.truncate(EclipticLongitude.Precision.Tenth).getSeries().cosine);
+        assertEquals(planet.truncate(EclipticLongitude.Precision.Tenth).getSeries().size(), tuned.truncate(EclipticLongitude.Precision.Tenth).getSeries().size());
+        assertEquals(planet.truncate(EclipticLongitude.Precision.Hundredth).getSeries().size(), planet.truncate(EclipticLongitude.Precision.Tenth).withCosine(cosine).truncate(EclipticLongitude.Precision.Hundredth).getSeries().size());
+        new SplittableRandom(2018).doubles(100_000, -25, 10).forEach(terrestrialTime -> {
+          final double error = planet.getFormulaAsStream().mapToDouble(f -> Math.abs(f.amplitude(terrestrialTime))).sum() * cosine.getMaxError() + 1E-9;
+          assertEquals(planet.getSeries().estimate(terrestrialTime), tuned.getSeries().estimate(terrestrialTime), error, Objects.toString(terrestrialTime));
+        });
+        final double[] julianDates = new SplittableRandom(2018).doubles(10_000, Deamtiet.j2000 - 36525 * 25, Deamtiet.j2000 + 36525 * 10).toArray();
+        final double[] longitudes = tuned.getLongitudes(julianDates, new double[julianDates.length]);
+        IntStream.range(0, julianDates.length).forEach(i -> assertEquals(tuned.getLongitude(julianDates[i]), longitudes[i]));
+      }
+    /* @formatter:on */});
+  }
 }
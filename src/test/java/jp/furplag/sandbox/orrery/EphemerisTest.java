@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class EphemerisTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testSun() {
+    assertError(Ephemeris.of(EclipticLongitude.Sun), Ephemeris.sunError);
+  }
+
+  @Test
+  void testMoon() {
+    assertError(Ephemeris.of(EclipticLongitude.Moon), Ephemeris.moonError);
+  }
+
+  @Test
+  void testGetLongitude() {
+    final double from = Deamtiet.j2000 - 3653, to = Deamtiet.j2000 + 3653;
+    final Ephemeris ephemeris = Ephemeris.of(EclipticLongitude.Moon, from, to);
+    assertSame(EclipticLongitude.Moon.getSeries(), ephemeris.getSeries());
+    assertSame(EclipticLongitude.Moon.getFormulas(), ephemeris.getFormulas());
+    final double[] julianDates = new SplittableRandom(2018).doubles(10_000, from, to).toArray();
+    final double[] longitudes = ephemeris.getLongitudes(julianDates, new double[julianDates.length]);
+    IntStream.range(0, julianDates.length).forEach(i -> {/* @formatter:off */
+      assertEquals(ephemeris.getLongitude(julianDates[i]), longitudes[i]);
+      assertTrue(longitudes[i] >= 0 && longitudes[i] < 360, Objects.toString(longitudes[i]));
+      assertEquals(0, Solver.lag(longitudes[i], EclipticLongitude.Moon.getLongitude(julianDates[i])), Ephemeris.moonError, Objects.toString(julianDates[i]));
+    /* @formatter:on */});
+    DoubleStream.of(from - 10, to + 10, Deamtiet.j2000 + 36525).forEach(julianDate -> assertEquals(EclipticLongitude.Moon.getLongitude(julianDate), ephemeris.getLongitude(julianDate)));
+    assertThrows(IndexOutOfBoundsException.class, () -> ephemeris.getLongitudes(julianDates, new double[1]));
+  }
+
+  @Test
+  void testGetLongitudeAndRate() {
+    final double from = Deamtiet.j2000 - 3653, to = Deamtiet.j2000 + 3653;
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final Ephemeris ephemeris = Ephemeris.of(planet, from, to);
+      new SplittableRandom(2018).doubles(10_000, from, to).forEach(julianDate -> {
+        final double[] expected = planet.getLongitudeAndRate(julianDate, new double[2], 0);
+        final double[] actual = ephemeris.getLongitudeAndRate(julianDate, new double[2], 0);
+        assertEquals(ephemeris.getLongitude(julianDate), actual[0], Objects.toString(julianDate));
+        assertEquals(expected[1], actual[1], expected[1] * 1E-6, Objects.toString(julianDate));
+      });
+      DoubleStream.of(from - 36525, to + 36525).forEach(julianDate -> assertArrayEquals(planet.getLongitudeAndRate(julianDate, new double[2], 0), ephemeris.getLongitudeAndRate(julianDate, new double[2], 0)));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testReadWrite() throws IOException {
+    final Ephemeris ephemeris = Ephemeris.of(EclipticLongitude.Sun, Deamtiet.j2000 - 36525, Deamtiet.j2000 + 36525);
+    final Path path = ephemeris.write(directory.resolve("sun.bin"));
+    assertEquals(Ephemeris.headerSize + ((long) ephemeris.getOrder()) * ephemeris.getSegments() * Double.BYTES, Files.size(path));
+    final Ephemeris actual = Ephemeris.read(path, EclipticLongitude.Sun);
+    assertEquals(ephemeris.getOrigin(), actual.getOrigin());
+    assertEquals(ephemeris.getSpan(), actual.getSpan());
+    assertEquals(ephemeris.getOrder(), actual.getOrder());
+    assertEquals(ephemeris.getSegments(), actual.getSegments());
+    final double[] terrestrialTimes = new SplittableRandom(2018).doubles(10_000, -1.1, 1.1).toArray();
+    assertArrayEquals(DoubleStream.of(terrestrialTimes).map(ephemeris::estimate).toArray(), DoubleStream.of(terrestrialTimes).map(actual::estimate).toArray());
+
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.read(path, EclipticLongitude.Moon));
+    assertThrows(IOException.class, () -> Ephemeris.read(Files.write(directory.resolve("empty.bin"), new byte[0]), EclipticLongitude.Sun));
+    assertThrows(IOException.class, () -> Ephemeris.read(Files.write(directory.resolve("broken.bin"), Arrays.copyOf(Files.readAllBytes(path), 100)), EclipticLongitude.Sun));
+    assertThrows(IOException.class, () -> Ephemeris.read(directory.resolve("nothing.bin"), EclipticLongitude.Sun));
+  }
+
+  @Test
+  void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.of(EclipticLongitude.Sun, 0, 8, Deamtiet.j2000, Deamtiet.j2000 + 1));
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.of(EclipticLongitude.Sun, 32, 0, Deamtiet.j2000, Deamtiet.j2000 + 1));
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.of(EclipticLongitude.Sun, 32, 8, Deamtiet.j2000, Deamtiet.j2000));
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.of(EclipticLongitude.Sun, 32, 8, Deamtiet.j2000, Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> Ephemeris.of(EclipticLongitude.Moon, 1E-3, 1 << 10, Ephemeris.since, Ephemeris.until));
+    assertThrows(NullPointerException.class, () -> Ephemeris.of(null));
+  }
+
+  /**
+   * asserts the difference from the series at random instants in each segment .
+   *
+   * @param ephemeris {@link Ephemeris}
+   * @param error the maximum difference
+   */
+  private static void assertError(final Ephemeris ephemeris, final double error) {
+    final EclipticLongitude.Series series = ephemeris.getSource().getSeries();
+    final SplittableRandom random = new SplittableRandom(2018);
+    assertTrue(ephemeris.getOrigin() <= Astror.toTerrestrialTime(Ephemeris.since));
+    assertTrue(ephemeris.getOrigin() + ephemeris.getSpan() * ephemeris.getSegments() >= Astror.toTerrestrialTime(Ephemeris.until));
+    IntStream.range(0, ephemeris.getSegments()).forEach(segment -> {/* @formatter:off */
+      final double terrestrialTime = ephemeris.getOrigin() + (segment + random.nextDouble()) * ephemeris.getSpan();
+      assertEquals(series.estimate(terrestrialTime), ephemeris.estimate(terrestrialTime), error, Objects.toString(terrestrialTime));
+    /* @formatter:on */});
+  }
+}
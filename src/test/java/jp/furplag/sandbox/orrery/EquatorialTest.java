@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class EquatorialTest {
+
+  @Test
+  void testObliquity() {
+    // Meeus, Astronomical Algorithms, example 22.a .
+    assertEquals(23 + 26 / 60.0 + 27.407 / 3600.0, Equatorial.obliquityOf(-0.127296372348), 1E-6);
+    assertEquals(84381.448 / 3600.0, Equatorial.obliquityOf(0));
+  }
+
+  @Test
+  void test() {
+    // Meeus, Astronomical Algorithms, example 13.a .
+    final double[] pollux = Equatorial.of(113.215630, 6.684170, 23.4392911, new double[3], 1);
+    assertEquals(116.328942, pollux[1], 1E-6);
+    assertEquals(28.026183, pollux[2], 1E-6);
+    assertArrayEquals(new double[] {0, 0}, Equatorial.of(0, 0, 23.4392911, new double[2], 0), 1E-12);
+    assertArrayEquals(new double[] {90, 23.4392911}, Equatorial.of(90, 0, 23.4392911, new double[2], 0), 1E-12);
+    assertArrayEquals(new double[] {270, -23.4392911}, Equatorial.of(270, 0, 23.4392911, new double[2], 0), 1E-12);
+    new SplittableRandom(2018).doubles(1_000, 0, 360).forEach(longitude -> {/* @formatter:off */
+      final double[] coordinate = Equatorial.of(longitude, 0, 23.4392911, new double[2], 0);
+      final double alpha = Math.toRadians(coordinate[0]), delta = Math.toRadians(coordinate[1]), epsilon = Math.toRadians(23.4392911);
+      assertEquals(0, Solver.lag(Math.toDegrees(Math.atan2(Math.sin(alpha) * Math.cos(epsilon) + Math.tan(delta) * Math.sin(epsilon), Math.cos(alpha))), longitude), 1E-9, Objects.toString(longitude));
+      assertEquals(Math.toDegrees(Math.asin(Math.sin(Math.toRadians(23.4392911)) * Math.sin(Math.toRadians(longitude)))), coordinate[1], 1E-9, Objects.toString(longitude));
+    /* @formatter:on */});
+    assertThrows(IndexOutOfBoundsException.class, () -> Equatorial.of(0, 0, 23.4392911, new double[2], 1));
+  }
+
+  @Test
+  void testOfSun() {
+    new SplittableRandom(2018).doubles(1_000, Deamtiet.j2000 - 36525, Deamtiet.j2000 + 36525).forEach(julianDate -> {/* @formatter:off */
+      final Moment moment = Moment.of(julianDate);
+      assertArrayEquals(Equatorial.of(EclipticLongitude.Sun.getLongitude(julianDate), 0, Equatorial.obliquityOf(Astror.toTerrestrialTime(julianDate)), new double[2], 0), Equatorial.ofSun(moment, new double[2], 0), Objects.toString(julianDate));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testNutation() {
+    // Meeus, Astronomical Algorithms, example 22.a .
+    final Equatorial.Nutation nutation = new Equatorial.Nutation(-0.127296372348);
+    assertEquals(-3.788, nutation.getLongitude() * 3600, .5);
+    assertEquals(9.443, nutation.getObliquity() * 3600, .1);
+    assertEquals(23 + 26 / 60.0 + 36.850 / 3600.0, nutation.getTrueObliquity(), .1 / 3600);
+    assertEquals(nutation.getLongitude() + 17.20 * Math.sin(Math.toRadians(125.04452 - 1934.136261 * -0.127296372348)) / 3600, nutation.getResidual(), 1E-12);
+
+    final Equatorial.Nutation cached = Equatorial.Nutation.of(-0.127296372348);
+    assertSame(cached, Equatorial.Nutation.of(-0.127296372348 + Equatorial.Nutation.quantum / 4));
+    assertEquals(Math.round(-0.127296372348 / Equatorial.Nutation.quantum) * Equatorial.Nutation.quantum, cached.getTerrestrialTime());
+    assertEquals(new Equatorial.Nutation(cached.getTerrestrialTime()).getTrueObliquity(), cached.getTrueObliquity());
+    assertEquals(nutation.getLongitude(), cached.getLongitude(), 1E-3 / 3600);
+    assertEquals(nutation.getObliquity(), cached.getObliquity(), 1E-3 / 3600);
+  }
+
+  @Test
+  void testApparentOfNutation() {
+    // the apparent minus the mean position, in the first order of nutation ( Meeus, Astronomical Algorithms, chapter 23 ) .
+    new SplittableRandom(2018).doubles(1_000, Deamtiet.j2000 - 36525, Deamtiet.j2000 + 36525).forEach(julianDate -> {/* @formatter:off */
+      final Moment moment = Moment.of(julianDate);
+      final Equatorial.Nutation nutation = Equatorial.Nutation.of(moment.getTerrestrialTime());
+      final double obliquity = Equatorial.obliquityOf(moment.getTerrestrialTime());
+      for (EclipticLongitude planet : new EclipticLongitude[] {EclipticLongitude.Sun, EclipticLongitude.Moon}) {
+        final double latitude = planet == EclipticLongitude.Moon ? Equatorial.latitudeOfMoon(moment.getTerrestrialTime()) : 0;
+        final double[] mean = Equatorial.of(moment.getLongitude(planet), latitude, obliquity, new double[2], 0);
+        final double[] apparent = Equatorial.apparentOf(planet, moment, new double[2], 0);
+        final double alpha = Math.toRadians(mean[0]), tangentOfDelta = Math.tan(Math.toRadians(mean[1])), epsilon = Math.toRadians(obliquity);
+        final double deltaOfPsi = nutation.getResidual(), deltaOfEpsilon = nutation.getTrueObliquity() - obliquity;
+        final String message = (planet == EclipticLongitude.Moon ? "Moon:" : "Sun:") + julianDate;
+        assertEquals((Math.cos(epsilon) + Math.sin(epsilon) * Math.sin(alpha) * tangentOfDelta) * deltaOfPsi - Math.cos(alpha) * tangentOfDelta * deltaOfEpsilon, Solver.lag(apparent[0], mean[0]), .01 / 3600, message);
+        assertEquals(Math.sin(epsilon) * Math.cos(alpha) * deltaOfPsi + Math.sin(alpha) * deltaOfEpsilon, apparent[1] - mean[1], .01 / 3600, message);
+      }
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testApparent() {
+    // Meeus, Astronomical Algorithms, example 25.a and 47.a .
+    final double sun = 2448908.5 - Astror.daysOf(DeltaT.estimate(2448908.5)), moon = 2448724.5 - Astror.daysOf(DeltaT.estimate(2448724.5));
+    assertArrayEquals(new double[] {198.38083, -7.78507}, Equatorial.apparentOf(EclipticLongitude.Sun, sun, new double[2], 0), .005);
+    final double[] apparentOfMoon = Equatorial.apparentOf(EclipticLongitude.Moon, moon, new double[2], 0);
+    assertEquals(134.688470, apparentOfMoon[0], .0005);
+    assertEquals(13.768368, apparentOfMoon[1], .005);
+    assertEquals(-3.229126, Equatorial.latitudeOfMoon(Moment.of(moon).getTerrestrialTime()), .01);
+
+    final double[] julianDates = new SplittableRandom(2018).doubles(1_000, Deamtiet.j2000 - 36525, Deamtiet.j2000 + 36525).sorted().toArray();
+    julianDates[1] = julianDates[0] + 1E-3;
+    julianDates[2] = julianDates[0] + 2E-3;
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final double[] actual = Equatorial.apparentOf(planet, julianDates, new double[julianDates.length * 2 + 1]);
+      IntStream.range(0, julianDates.length).forEach(i -> {
+        final double[] expect = Equatorial.apparentOf(planet, julianDates[i], new double[2], 0);
+        assertEquals(expect[0], actual[i * 2], Objects.toString(julianDates[i]));
+        assertEquals(expect[1], actual[i * 2 + 1], Objects.toString(julianDates[i]));
+        assertTrue(Math.abs(expect[1]) < (planet == EclipticLongitude.Sun ? 23.5 : 29), Objects.toString(julianDates[i]));
+      });
+      assertEquals(0, actual[julianDates.length * 2]);
+    /* @formatter:on */});
+    assertThrows(IllegalArgumentException.class, () -> Equatorial.apparentOf(EclipticLongitude.Moon.truncate(EclipticLongitude.Precision.Tenth), Deamtiet.j2000, new double[2], 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> Equatorial.apparentOf(EclipticLongitude.Sun, julianDates, new double[julianDates.length]));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class EventsTest {
+
+  private static final double tolerance = 2.0 / 86400.0;
+
+  private static double from;
+
+  private static double to;
+
+  private static Events events;
+
+  @BeforeAll
+  static void setup() {
+    from = julianDateOf(2019);
+    to = julianDateOf(2022);
+    events = Events.of(from, to);
+  }
+
+  private static double julianDateOf(final int year) {
+    return Deamtiet.julian.ofEpochMilli(ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli());
+  }
+
+  @Test
+  void test() {
+    assertEquals(from, events.getFrom());
+    assertEquals(to, events.getTo());
+    final List<Events.Event> solarTerms = IntStream.range(0, events.size()).mapToObj(events::get).filter(Events.Event::isSolarTerm).collect(Collectors.toList());
+    assertEquals(24 * 3, solarTerms.size());
+    final SolarTerm solarTerm = new SolarTerm();
+    IntStream.rangeClosed(2019, 2021).forEach(year -> {/* @formatter:off */
+      final double[] expected = solarTerm.ofYear(year);
+      for (int i = 0; i < 24; i++) {
+        final Events.Event actual = solarTerms.get((year - 2019) * 24 + i);
+        assertEquals(expected[i], actual.getJulianDate(), tolerance, Objects.toString(actual));
+        assertEquals(SolarTerm.longitudeOf(i), actual.getLongitude());
+        assertNull(actual.getPhase());
+      }
+    /* @formatter:on */});
+    final double[] newMoons = new LunarPhase().newMoons(from, to);
+    final List<Events.Event> phases = IntStream.range(0, events.size()).mapToObj(events::get).filter(event -> !event.isSolarTerm()).collect(Collectors.toList());
+    assertEquals(newMoons.length, phases.stream().filter(event -> LunarPhase.Phase.New.equals(event.getPhase())).count());
+    for (int i = 1; i < phases.size(); i++) {
+      assertEquals(phases.get(i - 1).getPhase().ordinal(), (phases.get(i).getPhase().ordinal() + 3) % 4, Objects.toString(phases.get(i)));
+      assertTrue(Double.isNaN(phases.get(i).getLongitude()));
+    }
+    for (double newMoon : newMoons) {
+      assertEquals(newMoon, events.next(newMoon - .5, LunarPhase.Phase.New).getJulianDate(), tolerance);
+    }
+    for (int i = 1; i < events.size(); i++) {
+      assertTrue(events.get(i - 1).getJulianDate() <= events.get(i).getJulianDate());
+    }
+  }
+
+  @Test
+  void testLookup() {
+    final Events.Event event = events.get(100);
+    assertEquals(event, events.next(event.getJulianDate() - 1E-6));
+    assertEquals(events.get(101), events.next(event.getJulianDate()));
+    assertEquals(event, events.previous(event.getJulianDate()));
+    assertEquals(events.get(99), events.previous(event.getJulianDate() - 1E-6));
+    assertEquals(events.get(0), events.next(from - 100));
+    assertNull(events.previous(from - 100));
+    assertNull(events.next(to));
+    assertEquals(events.get(events.size() - 1), events.previous(to + 100));
+    assertEquals(IntStream.range(100, 110).mapToObj(events::get).collect(Collectors.toList()), events.range(events.get(99).getJulianDate(), events.get(109).getJulianDate()));
+    assertEquals(List.of(), events.range(to, from));
+    assertNull(events.next(to - 1, LunarPhase.Phase.New));
+    assertNull(events.previous(from + 1, LunarPhase.Phase.Full));
+    assertThrows(IndexOutOfBoundsException.class, () -> events.get(events.size()));
+  }
+
+  @Test
+  void testAgeOfMoon() {
+    final LunarPhase lunarPhase = new LunarPhase();
+    final double newMoon = lunarPhase.next(from + 100, LunarPhase.Phase.New);
+    assertEquals(1, events.ageOfMoon(newMoon + 1), tolerance);
+    assertEquals(0, events.ageOfMoon(newMoon + tolerance), tolerance);
+    // out of the index .
+    final double outOfRange = lunarPhase.next(to + 100, LunarPhase.Phase.New);
+    assertEquals(1.5, events.ageOfMoon(outOfRange + 1.5), tolerance);
+    assertEquals(3, events.ageOfMoon(from + 3 - (from - lunarPhase.next(from - 40, LunarPhase.Phase.New))), tolerance * 2);
+    IntStream.range(0, 100).mapToDouble(i -> from + 40 + i * 7.77).forEach(julianDate -> {/* @formatter:off */
+      final double age = events.ageOfMoon(julianDate);
+      assertTrue(age >= 0 && age < LunarPhase.synodicMonth + 1, Objects.toString(age));
+      // the elongation is zero at the new moon .
+      assertEquals(0, Solver.lag(LunarPhase.elongationOf(julianDate - age), 0), 1E-3, Objects.toString(julianDate));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testReadWrite(@TempDir final Path directory) throws IOException {
+    final Path path = events.write(directory.resolve("events.bin"));
+    assertEquals(Events.headerSize + events.size() * 9L, Files.size(path));
+    final Events actual = Events.read(path);
+    assertEquals(events.size(), actual.size());
+    assertEquals(events.getFrom(), actual.getFrom());
+    assertEquals(events.getTo(), actual.getTo());
+    assertArrayEquals(IntStream.range(0, events.size()).mapToObj(events::get).toArray(), IntStream.range(0, actual.size()).mapToObj(actual::get).toArray());
+    assertEquals(events.next(from + 500), actual.next(from + 500));
+    assertEquals(events.ageOfMoon(from + 500), actual.ageOfMoon(from + 500));
+
+    final Path broken = directory.resolve("broken.bin");
+    Files.write(broken, new byte[] { 1, 2, 3 });
+    assertThrows(IOException.class, () -> Events.read(broken));
+    Files.write(broken, java.util.Arrays.copyOf(Files.readAllBytes(path), Events.headerSize + 1));
+    assertThrows(IOException.class, () -> Events.read(broken));
+    assertFalse(Events.read(path).range(from, to).isEmpty());
+  }
+
+  @Test
+  void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> Events.of(Deamtiet.j2000, Deamtiet.j2000));
+    assertThrows(IllegalArgumentException.class, () -> Events.of(Double.NaN, Deamtiet.j2000));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class KyurekiTest {
+
+  @Test
+  void test() {/* @formatter:off */
+    assertEquals(Kyureki.of(2018, 1, false, 1), Kyureki.of(LocalDate.parse("2018-02-16")));
+    assertEquals(Kyureki.of(2019, 1, false, 1), Kyureki.of(LocalDate.parse("2019-02-05")));
+    assertEquals(Kyureki.of(2020, 1, false, 1), Kyureki.of(LocalDate.parse("2020-01-25")));
+    assertEquals(Kyureki.of(2021, 1, false, 1), Kyureki.of(LocalDate.parse("2021-02-12")));
+    assertEquals(Kyureki.of(2022, 1, false, 1), Kyureki.of(LocalDate.parse("2022-02-01")));
+    assertEquals(Kyureki.of(2023, 1, false, 1), Kyureki.of(LocalDate.parse("2023-01-22")));
+    assertEquals(Kyureki.of(2024, 1, false, 1), Kyureki.of(LocalDate.parse("2024-02-10")));
+
+    assertEquals(Kyureki.of(2017, 12, false, 1), Kyureki.of(LocalDate.parse("2018-01-17")));
+    assertEquals(Kyureki.of(2017, 12, false, 30), Kyureki.of(LocalDate.parse("2018-02-15")));
+    assertEquals(Kyureki.of(2018, 11, false, 1), Kyureki.of(LocalDate.parse("2018-12-07")));
+
+    assertEquals(Kyureki.of(2012, 3, true, 1), Kyureki.of(LocalDate.parse("2012-04-21")));
+    assertEquals(Kyureki.of(2014, 9, true, 1), Kyureki.of(LocalDate.parse("2014-10-24")));
+    assertEquals(Kyureki.of(2017, 5, true, 1), Kyureki.of(LocalDate.parse("2017-06-24")));
+    assertEquals(Kyureki.of(2017, 6, false, 1), Kyureki.of(LocalDate.parse("2017-07-23")));
+    assertEquals(Kyureki.of(2020, 4, true, 1), Kyureki.of(LocalDate.parse("2020-05-23")));
+    assertEquals(Kyureki.of(2023, 2, true, 1), Kyureki.of(LocalDate.parse("2023-03-22")));
+
+    assertTrue(Kyureki.of(LocalDate.parse("2017-07-01")).isLeapMonth());
+    assertFalse(Kyureki.of(LocalDate.parse("2018-07-01")).isLeapMonth());
+    assertEquals(29, Kyureki.of(2017, 5, true, 1).lengthOfMonth());
+    assertEquals(LocalDate.parse("2017-06-24"), Kyureki.of(2017, 5, true, 1).toLocalDate());
+  /* @formatter:on */}
+
+  @Test
+  void testInvalid() {
+    assertThrows(DateTimeException.class, () -> Kyureki.of(2018, 5, true, 1));
+    assertThrows(DateTimeException.class, () -> Kyureki.of(2018, 13, false, 1));
+    assertThrows(DateTimeException.class, () -> Kyureki.of(2018, 1, false, 0));
+    assertThrows(DateTimeException.class, () -> Kyureki.of(2017, 5, true, 30));
+  }
+
+  @Test
+  void testRoundTrip() {
+    IntStream.of(-500, 1000, 1955, 2017, 2033, 3000).forEach(year -> {/* @formatter:off */
+      LocalDate date = LocalDate.of(year, 1, 1);
+      Kyureki previous = Kyureki.of(date.minusDays(1));
+      for (; date.getYear() == year; date = date.plusDays(1)) {
+        final Kyureki kyureki = Kyureki.of(date);
+        assertEquals(date, kyureki.toLocalDate(), Objects.toString(kyureki));
+        assertEquals(kyureki, Kyureki.of(kyureki.getYear(), kyureki.getMonth(), kyureki.isLeapMonth(), kyureki.getDayOfMonth()));
+        assertTrue(kyureki.getDayOfMonth() == 1 || kyureki.getDayOfMonth() == previous.getDayOfMonth() + 1, Objects.toString(kyureki));
+        assertTrue(kyureki.getDayOfMonth() > 1 || previous.getDayOfMonth() == 29 || previous.getDayOfMonth() == 30, Objects.toString(previous));
+        previous = kyureki;
+      }
+    /* @formatter:on */});
+    assertEquals(12, Kyureki.tableOf(2018).months.length);
+    assertEquals(13, Kyureki.tableOf(2017).months.length);
+  }
+}
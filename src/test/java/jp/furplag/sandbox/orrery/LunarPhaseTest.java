@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.orrery.LunarPhase.Phase;
+import jp.furplag.sandbox.time.Deamtiet;
+
+class LunarPhaseTest {
+
+  private static double julianDateOf(final String dateTime) {
+    return Deamtiet.julian.ofEpochMilli(OffsetDateTime.parse(dateTime).toInstant().toEpochMilli());
+  }
+
+  @Test
+  void test() {
+    assertEquals(Phase.FirstQuarter, Phase.following(0));
+    assertEquals(Phase.FirstQuarter, Phase.following(89.999));
+    assertEquals(Phase.Full, Phase.following(90));
+    assertEquals(Phase.LastQuarter, Phase.following(180));
+    assertEquals(Phase.New, Phase.following(270));
+    assertEquals(Phase.New, Phase.following(359.999));
+    assertEquals(Phase.FirstQuarter, Phase.following(-360));
+  }
+
+  @Test
+  void testNext() {
+    final LunarPhase lunarPhase = new LunarPhase();
+    assertEquals(julianDateOf("2018-01-09T07:25+09:00"), lunarPhase.next(julianDateOf("2018-01-03T00:00+09:00"), Phase.LastQuarter), 1.0 / 1440);
+    assertEquals(julianDateOf("2018-01-17T11:17+09:00"), lunarPhase.next(julianDateOf("2018-01-03T00:00+09:00"), Phase.New), 1.0 / 1440);
+    assertEquals(julianDateOf("2018-01-25T07:20+09:00"), lunarPhase.next(julianDateOf("2018-01-03T00:00+09:00"), Phase.FirstQuarter), 1.0 / 1440);
+    assertEquals(julianDateOf("2018-01-31T22:27+09:00"), lunarPhase.next(julianDateOf("2018-01-03T00:00+09:00"), Phase.Full), 1.0 / 1440);
+    assertEquals(julianDateOf("2018-01-09T07:25+09:00"), lunarPhase.next(julianDateOf("2018-01-03T00:00+09:00")), 1.0 / 1440);
+
+    IntStream.rangeClosed(-500, 3000).filter(y -> y % 13 == 0).forEach(y -> {/* @formatter:off */
+      double julianDate = julianDateOf("2001-01-01T00:00Z") + (y - 2001) * 365.2425;
+      Phase phase = lunarPhase.upcoming(julianDate);
+      for (int i = 0; i < 8; i++) {
+        final double actual = lunarPhase.next(julianDate);
+        assertTrue(julianDate < actual && actual < julianDate + 9, y + ":" + i);
+        assertEquals(0, Solver.lag(LunarPhase.elongationOf(actual), phase.getElongation()), LunarPhase.rate * 2 / 86400, y + ":" + i);
+        assertEquals(actual, lunarPhase.next(julianDate, phase), y + ":" + i);
+        julianDate = actual;
+        phase = Phase.following(phase.getElongation());
+      }
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testNewMoons() {
+    final double[] expects = Arrays.asList(/* @formatter:off */
+      // http://eco.mtk.nao.ac.jp/koyomi/yoko/pdf/yoko2018.pdf
+        "2018-01-17T11:17+09:00"
+      , "2018-02-16T06:05+09:00"
+      , "2018-03-17T22:12+09:00"
+      , "2018-04-16T10:57+09:00"
+      , "2018-05-15T20:48+09:00"
+      , "2018-06-14T04:43+09:00"
+      , "2018-07-13T11:48+09:00"
+      , "2018-08-11T18:58+09:00"
+      , "2018-09-10T03:01+09:00"
+      , "2018-10-09T12:47+09:00"
+      , "2018-11-08T01:02+09:00"
+      , "2018-12-07T16:20+09:00"
+    /* @formatter:on */).stream().mapToDouble(LunarPhaseTest::julianDateOf).toArray();
+    final double[] actuals = new LunarPhase().newMoons(julianDateOf("2018-01-01T00:00+09:00"), julianDateOf("2019-01-01T00:00+09:00"));
+    assertEquals(expects.length, actuals.length);
+    IntStream.range(0, expects.length).forEach(i -> assertEquals(expects[i], actuals[i], 1.0 / 1440, Objects.toString(i)));
+    assertEquals(0, new LunarPhase().newMoons(actuals[0], actuals[0] + 29).length);
+    assertEquals(1, new LunarPhase().newMoons(actuals[0] - 1, actuals[0] + 29).length);
+  }
+
+  @Test
+  void testEvaluations() {
+    final LunarPhase lunarPhase = new LunarPhase();
+    IntStream.rangeClosed(-500, 3000).filter(y -> y % 7 == 0).forEach(y -> {/* @formatter:off */
+      final double julianDate = julianDateOf("2001-01-01T00:00Z") + (y - 2001) * 365.2425;
+      final AtomicInteger evaluations = new AtomicInteger();
+      lunarPhase.solver.solve(x -> { evaluations.incrementAndGet(); return LunarPhase.elongationOf(x); }, 0.0, LunarPhase.rate, julianDate + Astror.circulate(-LunarPhase.elongationOf(julianDate)) / LunarPhase.rate);
+      assertTrue(evaluations.get() <= 6, y + ":" + evaluations.get());
+      final AtomicInteger motions = new AtomicInteger();
+      final double expected = lunarPhase.solver.solve(LunarPhase::elongationOf, 0.0, LunarPhase.rate, julianDate);
+      final double actual = lunarPhase.solver.solve((x, motion) -> { motions.incrementAndGet(); LunarPhase.motionOf(x, motion); }, 0.0, LunarPhase.rate, julianDate);
+      assertEquals(expected, actual, LunarPhase.defaultTolerance, Objects.toString(y));
+      assertTrue(motions.get() <= 4, y + ":" + motions.get());
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testNotConverged() {
+    final double julianDate = julianDateOf("2018-01-01T00:00+09:00");
+    final AtomicInteger motions = new AtomicInteger();
+    final double expected = new LunarPhase().solver.solve((x, motion) -> { motions.incrementAndGet(); LunarPhase.motionOf(x, motion); }, 0.0, LunarPhase.rate, julianDate);
+    final int required = motions.get();
+    assertTrue(required > 1, Objects.toString(required));
+    IntStream.rangeClosed(1, LunarPhase.defaultMaxEvaluations).forEach(maxEvaluations -> {/* @formatter:off */
+      final LunarPhase lunarPhase = new LunarPhase(LunarPhase.defaultTolerance, maxEvaluations);
+      if (maxEvaluations < required) {
+        // never returns the estimate which has not converged .
+        assertThrows(IllegalStateException.class, () -> lunarPhase.solver.solve(LunarPhase::motionOf, 0.0, LunarPhase.rate, julianDate), Objects.toString(maxEvaluations));
+      } else {
+        assertEquals(expected, lunarPhase.solver.solve(LunarPhase::motionOf, 0.0, LunarPhase.rate, julianDate), Objects.toString(maxEvaluations));
+      }
+    /* @formatter:on */});
+    assertThrows(IllegalStateException.class, () -> new LunarPhase(LunarPhase.defaultTolerance, 1).next(julianDate, Phase.New));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class MemoizedTest {
+
+  @Test
+  void test() {
+    final double resolution = 1.0 / 1_440;
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final Memoized memoized = planet.memoize(resolution, 100);
+      assertSame(planet, memoized.getSource());
+      assertSame(planet.getSeries(), memoized.getSeries());
+      assertEquals(128, memoized.getCapacity());
+      assertTrue(Double.isNaN(memoized.getHitRatio()));
+      final double julianDate = Math.rint((Deamtiet.j2000 + 1234.5678) / resolution) * resolution;
+      final double expected = planet.getLongitude(julianDate);
+      assertEquals(expected, memoized.getLongitude(julianDate));
+      assertEquals(0, memoized.getHits());
+      assertEquals(1, memoized.getMisses());
+      assertEquals(expected, memoized.getLongitude(julianDate + resolution / 4));
+      assertEquals(expected, memoized.getLongitude(julianDate - resolution / 4));
+      assertEquals(2, memoized.getHits());
+      assertEquals(1, memoized.getMisses());
+      assertEquals(2 / 3.0, memoized.getHitRatio());
+      assertEquals(0, Solver.lag(planet.getLongitude(julianDate + resolution / 3), memoized.getLongitude(julianDate + resolution / 3)), planet == EclipticLongitude.Sun ? 1E-3 : 1E-2);
+      assertEquals(planet.getLongitude(Double.NaN), memoized.getLongitude(Double.NaN), Objects.toString(planet));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testRate() {
+    final double resolution = 1.0 / 1_440;
+    final Memoized memoized = EclipticLongitude.Moon.memoize(resolution, 100);
+    new SplittableRandom(2018).doubles(1_000, Deamtiet.j2000 - 1E5, Deamtiet.j2000 + 1E5).forEach(julianDate -> {/* @formatter:off */
+      final double[] expected = EclipticLongitude.Moon.getLongitudeAndRate(Math.rint(julianDate / resolution) * resolution, new double[2], 0);
+      final double[] actual = memoized.getLongitudeAndRate(julianDate, new double[3], 1);
+      assertEquals(memoized.getLongitude(julianDate), actual[1], Objects.toString(julianDate));
+      assertEquals(expected[0], actual[1], Objects.toString(julianDate));
+      assertEquals(expected[1], actual[2], Objects.toString(julianDate));
+    /* @formatter:on */});
+    assertTrue(Arrays.equals(EclipticLongitude.Moon.getLongitudeAndRate(Double.NaN, new double[2], 0), memoized.getLongitudeAndRate(Double.NaN, new double[2], 0)));
+    assertThrows(IndexOutOfBoundsException.class, () -> memoized.getLongitudeAndRate(Deamtiet.j2000, new double[2], 1));
+  }
+
+  @Test
+  void testTuned() {
+    final double resolution = 1.0 / 1_440;
+    final Memoized memoized = EclipticLongitude.Moon.memoize(resolution, 100);
+    assertSame(memoized, memoized.truncate(EclipticLongitude.Precision.Full));
+    assertSame(memoized, memoized.withCosine(EclipticLongitude.Moon.getSeries().cosine));
+    Arrays.asList(memoized.truncate(EclipticLongitude.Precision.Tenth), memoized.withCosine(Cosine.Table)).forEach(tuned -> {/* @formatter:off */
+      assertEquals(resolution, tuned.getResolution());
+      assertEquals(memoized.getCapacity(), tuned.getCapacity());
+      final double julianDate = Deamtiet.j2000 + 1234.5678;
+      final double expected = tuned.getSource().getLongitude(Math.rint(julianDate / resolution) * resolution);
+      assertEquals(expected, tuned.getLongitude(julianDate));
+      assertEquals(expected, tuned.getLongitude(julianDate + resolution / 4));
+      // still memoized .
+      assertEquals(1, tuned.getHits());
+      assertEquals(1, tuned.getMisses());
+      assertEquals(0, memoized.getHits() + memoized.getMisses());
+    /* @formatter:on */});
+    assertSame(EclipticLongitude.Moon, memoized.withCosine(Cosine.Table).withCosine(EclipticLongitude.Moon.getSeries().cosine).getSource());
+  }
+
+  @Test
+  void testEviction() {
+    final Memoized memoized = EclipticLongitude.Sun.memoize(1, Memoized.ways);
+    IntStream.range(0, Memoized.ways).forEach(i -> memoized.getLongitude(Deamtiet.j2000 + i));
+    assertEquals(Memoized.ways, memoized.getMisses());
+    IntStream.range(0, Memoized.ways).forEach(i -> memoized.getLongitude(Deamtiet.j2000 + i));
+    assertEquals(Memoized.ways, memoized.getHits());
+    memoized.getLongitude(Deamtiet.j2000 - 1);
+    assertEquals(Memoized.ways + 1, memoized.getMisses());
+    memoized.getLongitude(Deamtiet.j2000 - 1);
+    assertEquals(Memoized.ways + 1, memoized.getHits());
+    // the size is bounded .
+    IntStream.range(0, Memoized.ways).forEach(i -> memoized.getLongitude(Deamtiet.j2000 + i));
+    assertTrue(memoized.getMisses() > Memoized.ways + 1);
+  }
+
+  @Test
+  void testConcurrency() {
+    final double resolution = 1.0 / 24;
+    final Memoized memoized = EclipticLongitude.Moon.memoize(resolution, 64);
+    final double[] julianDates = new SplittableRandom(20180101L).doubles(100_000, Deamtiet.j2000, Deamtiet.j2000 + 10).toArray();
+    final double[] expected = Arrays.stream(julianDates).map(julianDate -> EclipticLongitude.Moon.getLongitude(Math.rint(julianDate / resolution) * resolution)).toArray();
+    final double[] actual = IntStream.range(0, julianDates.length).parallel().mapToDouble(i -> memoized.getLongitude(julianDates[i])).toArray();
+    assertTrue(Arrays.equals(expected, actual));
+    assertEquals(julianDates.length, memoized.getHits() + memoized.getMisses());
+    final double[] longitudes = memoized.getLongitudes(julianDates, new double[julianDates.length], 0, julianDates.length);
+    assertTrue(Arrays.equals(expected, longitudes));
+  }
+
+  @Test
+  void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Sun.memoize(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Sun.memoize(Double.NaN, 1));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Sun.memoize(1, 0));
+    assertThrows(NullPointerException.class, () -> new Memoized(null, 1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> EclipticLongitude.Sun.memoize(1, 1).getLongitudes(new double[2], new double[1], 0, 2));
+  }
+}
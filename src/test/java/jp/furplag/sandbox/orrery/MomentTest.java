@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class MomentTest {
+
+  @Test
+  void test() {
+    final EclipticLongitude tuned = EclipticLongitude.Moon.truncate(EclipticLongitude.Precision.Tenth);
+    new SplittableRandom(20180101L).doubles(1_000, Ephemeris.since - 36_525, Ephemeris.until + 36_525).forEach(julianDate -> {/* @formatter:off */
+      final Moment moment = Moment.of(julianDate);
+      final String message = Objects.toString(julianDate);
+      assertEquals(julianDate, moment.getJulianDate());
+      assertEquals(DeltaT.estimate(julianDate), moment.getDeltaOfT(), message);
+      assertEquals(Astror.toTerrestrialTime(julianDate), moment.getTerrestrialTime(), message);
+      assertEquals(EclipticLongitude.Sun.getLongitude(julianDate), moment.getSun(), message);
+      assertEquals(EclipticLongitude.Moon.getLongitude(julianDate), moment.getMoon(), message);
+      assertEquals(moment.getSun(), moment.getLongitude(EclipticLongitude.Sun), message);
+      assertEquals(moment.getMoon(), moment.getLongitude(EclipticLongitude.Moon), message);
+      assertEquals(tuned.getLongitude(julianDate), moment.getLongitude(tuned), message);
+      assertEquals(LunarPhase.elongationOf(julianDate), moment.getElongation(), message);
+      assertEquals(Astror.circulate(EclipticLongitude.Moon.getSeries().estimate(moment.getTerrestrialTime()) - EclipticLongitude.Sun.getSeries().estimate(moment.getTerrestrialTime())), moment.getElongation(), message);
+      assertEquals(EclipticLongitude.Sun.getRate(julianDate), moment.getRate(EclipticLongitude.Sun), message);
+      assertEquals(EclipticLongitude.Moon.getRate(julianDate), moment.getRate(EclipticLongitude.Moon), message);
+      assertEquals(tuned.getRate(julianDate), moment.getRate(tuned), message);
+      assertEquals(moment.getRate(EclipticLongitude.Moon) - moment.getRate(EclipticLongitude.Sun), moment.getElongationRate(), message);
+      assertArrayEquals(new Precession.Rotation(Astror.toTerrestrialTime(julianDate)).getMatrix(), moment.getRotation().getMatrix(), message);
+      assertArrayEquals(Precession.Rotation.anglesOf(Astror.toTerrestrialTime(julianDate), new double[3], 0), moment.getAngles(), message);
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testCache() {
+    final Moment moment = Moment.of(Deamtiet.j2000);
+    assertSame(moment.getRotation(), moment.getRotation());
+    assertNotSame(moment.getAngles(), moment.getAngles());
+    moment.getAngles()[0] = Double.NaN;
+    assertEquals(Precession.Rotation.anglesOf(moment.getTerrestrialTime(), new double[3], 0)[0], moment.getAngles()[0]);
+    final TelemetryMXBean telemetry = Telemetry.getInstance();
+    final boolean enabled = telemetry.isEnabled();
+    try {
+      telemetry.setEnabled(true);
+      telemetry.reset();
+      final Moment another = Moment.of(Deamtiet.j2000 + 1);
+      another.getSun();
+      another.getMoon();
+      another.getElongation();
+      another.getSun();
+      assertEquals(2L, telemetry.getCalls().get("Longitude"));
+      assertEquals(1L, telemetry.getCalls().get("DeltaT"));
+    } finally {
+      telemetry.setEnabled(enabled);
+      telemetry.reset();
+    }
+    assertThrows(NullPointerException.class, () -> moment.getLongitude(null));
+  }
+}
@@ -15,11 +15,21 @@
  */
 package jp.furplag.sandbox.orrery;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
@@ -45,4 +55,94 @@ class PrecessionTest {
           });
       });
   }
+
+  @Test
+  void testInitialization() {
+    IntStream.rangeClosed(-30_000, 30_000).mapToDouble(t -> t / 1_000.0).forEach(terrestrialTime -> {/* @formatter:off */
+      for (double[] parameter : new double[][] {Precession.Formula.constOfZeta, Precession.Formula.constOfZ, Precession.Formula.constOfTheta}) {
+        final double expected = (parameter[0] * terrestrialTime + parameter[1] * terrestrialTime * terrestrialTime + parameter[2] * terrestrialTime * terrestrialTime * terrestrialTime) / 3600.0 * Astror.radianizr;
+        assertEquals(expected, Precession.Formula.initialization(parameter, terrestrialTime), Math.ulp(expected) * 8, Objects.toString(terrestrialTime));
+        final double summation = DoubleStream.of(parameter[0] * terrestrialTime, parameter[1] * (terrestrialTime * terrestrialTime), parameter[2] * (terrestrialTime * terrestrialTime * terrestrialTime)).sum() / 3600.0 * Astror.radianizr;
+        assertEquals(summation, Precession.Formula.initialization(parameter, terrestrialTime), Math.ulp(summation) * 4, Objects.toString(terrestrialTime));
+      }
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testRotation() {
+    final SplittableRandom random = new SplittableRandom(2018);
+    random.doubles(1_000, -25, 10).forEach(terrestrialTime -> {/* @formatter:off */
+      final Precession.Rotation rotation = new Precession.Rotation(terrestrialTime);
+      final double[] m = rotation.getMatrix();
+      for (int i = 0; i < 3; i++) for (int j = 0; j < 3; j++) {
+        assertEquals(i == j ? 1 : 0, m[i * 3] * m[j * 3] + m[i * 3 + 1] * m[j * 3 + 1] + m[i * 3 + 2] * m[j * 3 + 2], 1E-14);
+      }
+      final Precession precession = new Precession(terrestrialTime) {};
+      final double alpha = random.nextDouble(-360, 360), delta = random.nextDouble(-90, 90);
+      final double[] vector = {Math.cos(Math.toRadians(alpha)) * Math.cos(Math.toRadians(delta)), Math.sin(Math.toRadians(alpha)) * Math.cos(Math.toRadians(delta)), Math.sin(Math.toRadians(delta))};
+      final double[] rotated = IntStream.range(0, 3).mapToDouble(i -> m[i * 3] * vector[0] + m[i * 3 + 1] * vector[1] + m[i * 3 + 2] * vector[2]).toArray();
+      final Precession.Coordinate coordinate = rotation.compute(alpha, delta);
+      assertEquals(Astror.circulate(Math.toDegrees(Math.atan2(rotated[1], rotated[0]))), coordinate.getLongitude(), 1E-9);
+      assertEquals(Math.toDegrees(Math.asin(rotated[2])), coordinate.getLatitude(), 1E-9);
+      assertTrue(0 <= coordinate.getLongitude() && coordinate.getLongitude() < 360);
+      assertArrayEquals(new double[] {-1, coordinate.getLongitude(), coordinate.getLatitude()}, rotation.compute(alpha, delta, new double[] {-1, 0, 0}, 1));
+
+      // the former result, which the location is in radians and the longitude is mixed .
+      final double[] former = IntStream.range(0, 3).mapToDouble(i -> {/* @formatter:off */
+        final double l = Math.cos(alpha) * Math.cos(delta), n = Math.sin(delta);
+        return m[i * 3] * l + m[i * 3 + 1] * (Math.sin(alpha) * Math.cos(delta)) + m[i * 3 + 2] * n;
+      /* @formatter:on */}).toArray();
+      assertEquals(Math.atan(former[1] / former[0]) + (former[0] < 0 ? 180.0 : former[1] < 0 ? 360.0 : 0), precession.compute(alpha, delta).getLongitude());
+      assertEquals(Math.asin(former[2]) * Astror.degreezr, precession.getLatitude());
+    /* @formatter:on */});
+    // Meeus, Astronomical Algorithms, example 21.b ( theta Persei, J2000.0 to 2028-11-13.19 TD ) .
+    final Precession.Coordinate persei = new Precession.Rotation(0.288670500).compute(41.054063, 49.227750);
+    assertEquals(41.547214, persei.getLongitude(), 1E-5);
+    assertEquals(49.348483, persei.getLatitude(), 1E-5);
+    assertEquals(new Precession.Coordinate(1, 2), new Precession.Coordinate(1, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> new Precession.Rotation(0).compute(0, 0, new double[2], 1));
+  }
+
+  @Test
+  void testCache() {
+    final double terrestrialTime = Astror.toTerrestrialTime(Deamtiet.j2000 + 6543.21);
+    final Precession.Rotation rotation = Precession.Rotation.of(terrestrialTime);
+    assertSame(rotation, Precession.Rotation.of(terrestrialTime));
+    assertSame(rotation, Precession.Rotation.of(rotation.getTerrestrialTime() + Precession.Rotation.quantum * .49));
+    assertNotSame(rotation, Precession.Rotation.of(rotation.getTerrestrialTime() + Precession.Rotation.quantum));
+    assertEquals(terrestrialTime, rotation.getTerrestrialTime(), Precession.Rotation.quantum / 2);
+    assertArrayEquals(new Precession.Rotation(rotation.getTerrestrialTime()).getMatrix(), rotation.getMatrix());
+    final Precession.Coordinate expected = new Precession.Rotation(terrestrialTime).compute(1, 1);
+    final Precession.Coordinate actual = rotation.compute(1, 1);
+    assertEquals(expected.getLongitude(), actual.getLongitude(), .003 / 3600);
+    assertEquals(expected.getLatitude(), actual.getLatitude(), .003 / 3600);
+  }
+
+  @Test
+  void testBatch() {
+    final Precession.Rotation rotation = new Precession.Rotation(Astror.toTerrestrialTime(Deamtiet.j2000 + 6543.21));
+    final SplittableRandom random = new SplittableRandom(2018);
+    final double[] coordinates = IntStream.range(0, 100_001 * 2).mapToDouble(i -> i % 2 == 0 ? random.nextDouble(0, 360) : random.nextDouble(-90, 90)).toArray();
+    final double[] expected = new double[coordinates.length];
+    IntStream.range(0, coordinates.length / 2).forEach(i -> rotation.compute(coordinates[i * 2], coordinates[i * 2 + 1], expected, i * 2));
+
+    assertArrayEquals(expected, rotation.compute(coordinates, new double[coordinates.length]));
+    assertArrayEquals(Arrays.copyOf(expected, 20), rotation.compute(Arrays.copyOf(coordinates, 20), new double[20]));
+    final DoubleBuffer direct = ByteBuffer.allocateDirect((coordinates.length + 2) * Double.BYTES).asDoubleBuffer();
+    direct.put(-1).put(-1).put(coordinates).position(2);
+    final DoubleBuffer destination = DoubleBuffer.allocate(coordinates.length + 1).position(1);
+    assertSame(destination, rotation.compute(direct, destination));
+    assertEquals(2, direct.position());
+    assertEquals(1, destination.position());
+    assertArrayEquals(expected, Arrays.copyOfRange(destination.array(), 1, destination.capacity()));
+    final double[] inPlace = coordinates.clone();
+    assertSame(inPlace, rotation.compute(inPlace, inPlace));
+    assertArrayEquals(expected, inPlace);
+    assertArrayEquals(new double[0], rotation.compute(new double[0], new double[0]));
+
+    assertThrows(IllegalArgumentException.class, () -> rotation.compute(new double[3], new double[4]));
+    assertThrows(IndexOutOfBoundsException.class, () -> rotation.compute(new double[4], new double[3]));
+    assertThrows(IllegalArgumentException.class, () -> rotation.compute(DoubleBuffer.allocate(3), DoubleBuffer.allocate(4)));
+    assertThrows(IndexOutOfBoundsException.class, () -> rotation.compute(DoubleBuffer.allocate(4), DoubleBuffer.allocate(4).position(1)));
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class SolarTermTest {
+
+  @Test
+  void test() {
+    assertThrows(IllegalArgumentException.class, () -> new SolarTerm(0, 8));
+    assertThrows(IllegalArgumentException.class, () -> new SolarTerm(Double.NaN, 8));
+    assertThrows(IllegalArgumentException.class, () -> new SolarTerm(1, 0));
+  }
+
+  @Test
+  void testOf() {
+    final SolarTerm solarTerm = new SolarTerm();
+    IntStream.rangeClosed(-500, 3000).filter(y -> y % 7 == 0).forEach(y -> {/* @formatter:off */
+      final double julianDate = Deamtiet.julian.ofEpochMilli(OffsetDateTime.parse("2001-01-01T00:00Z").withYear(y).plusDays(y % 365).toInstant().toEpochMilli());
+      final double longitude = (y % 24) * 15.0;
+      final double actual = solarTerm.of(longitude, julianDate);
+      assertTrue(Math.abs(actual - julianDate) < 190, Objects.toString(y));
+      assertEquals(0, Solver.lag(EclipticLongitude.Sun.getLongitude(actual), longitude), SolarTerm.rate * SolarTerm.defaultTolerance, Objects.toString(y));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testOfYear() {
+    final double[] expects = Arrays.asList(/* @formatter:off */
+      // http://eco.mtk.nao.ac.jp/koyomi/yoko/pdf/yoko2018.pdf
+        OffsetDateTime.parse("2018-01-05T18:49+09:00")
+      , OffsetDateTime.parse("2018-01-20T12:09+09:00")
+      , OffsetDateTime.parse("2018-02-04T06:28+09:00")
+      , OffsetDateTime.parse("2018-02-19T02:18+09:00")
+      , OffsetDateTime.parse("2018-03-06T00:28+09:00")
+      , OffsetDateTime.parse("2018-03-21T01:15+09:00")
+      , OffsetDateTime.parse("2018-04-05T05:13+09:00")
+      , OffsetDateTime.parse("2018-04-20T12:13+09:00")
+      , OffsetDateTime.parse("2018-05-05T22:25+09:00")
+      , OffsetDateTime.parse("2018-05-21T11:15+09:00")
+      , OffsetDateTime.parse("2018-06-06T02:29+09:00")
+      , OffsetDateTime.parse("2018-06-21T19:07+09:00")
+      , OffsetDateTime.parse("2018-07-07T12:42+09:00")
+      , OffsetDateTime.parse("2018-07-23T06:00+09:00")
+      , OffsetDateTime.parse("2018-08-07T22:31+09:00")
+      , OffsetDateTime.parse("2018-08-23T13:09+09:00")
+      , OffsetDateTime.parse("2018-09-08T01:30+09:00")
+      , OffsetDateTime.parse("2018-09-23T10:54+09:00")
+      , OffsetDateTime.parse("2018-10-08T17:15+09:00")
+      , OffsetDateTime.parse("2018-10-23T20:22+09:00")
+      , OffsetDateTime.parse("2018-11-07T20:32+09:00")
+      , OffsetDateTime.parse("2018-11-22T18:02+09:00")
+      , OffsetDateTime.parse("2018-12-07T13:26+09:00")
+      , OffsetDateTime.parse("2018-12-22T07:23+09:00")
+    /* @formatter:on */).stream().mapToDouble(expect -> Deamtiet.julian.ofEpochMilli(expect.toInstant().toEpochMilli())).toArray();
+    final double[] actuals = new SolarTerm().ofYear(2018);
+    assertEquals(24, actuals.length);
+    IntStream.range(0, 24).forEach(i -> assertEquals(expects[i], actuals[i], 3.0 / 1440, Objects.toString(i)));
+    IntStream.rangeClosed(-500, 3000).filter(y -> y % 100 == 0).forEach(y -> {/* @formatter:off */
+      final double[] terms = new SolarTerm().ofYear(y);
+      IntStream.range(0, 24).forEach(i -> assertEquals(0, Solver.lag(EclipticLongitude.Sun.getLongitude(terms[i]), SolarTerm.longitudeOf(i)), 1E-4, y + ":" + i));
+      IntStream.range(1, 24).forEach(i -> assertTrue(terms[i - 1] < terms[i], y + ":" + i));
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testEvaluations() {
+    final AtomicInteger evaluations = new AtomicInteger();
+    final double expected = new Solver(SolarTerm.defaultTolerance, 100).solve(julianDate -> { evaluations.incrementAndGet(); return EclipticLongitude.Sun.getLongitude(julianDate); }, 90.0, SolarTerm.rate, Deamtiet.j2000 + 160);
+    assertTrue(evaluations.get() <= 4, Objects.toString(evaluations.get()));
+    final int required = evaluations.get();
+    IntStream.rangeClosed(1, 8).forEach(maxEvaluations -> {/* @formatter:off */
+      evaluations.set(0);
+      final Solver solver = new Solver(SolarTerm.defaultTolerance, maxEvaluations);
+      if (maxEvaluations < required) {
+        // never returns the estimate which has not converged .
+        assertThrows(IllegalStateException.class, () -> solver.solve(julianDate -> { evaluations.incrementAndGet(); return EclipticLongitude.Sun.getLongitude(julianDate); }, 90.0, SolarTerm.rate, Deamtiet.j2000 + 160), Objects.toString(maxEvaluations));
+        assertThrows(IllegalStateException.class, () -> new SolarTerm(SolarTerm.defaultTolerance, maxEvaluations).of(90.0, Deamtiet.j2000 + 160), Objects.toString(maxEvaluations));
+      } else {
+        assertEquals(expected, solver.solve(julianDate -> { evaluations.incrementAndGet(); return EclipticLongitude.Sun.getLongitude(julianDate); }, 90.0, SolarTerm.rate, Deamtiet.j2000 + 160), Objects.toString(maxEvaluations));
+      }
+      assertTrue(evaluations.get() <= maxEvaluations, Objects.toString(maxEvaluations));
+    /* @formatter:on */});
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.time.Deamtiet;
+
+class StepperTest {
+
+  @Test
+  void test() {
+    final double start = Deamtiet.j2000 - 20_000.3, end = start + 100, step = 1.0 / 1_440;
+    Arrays.asList(EclipticLongitude.Sun, EclipticLongitude.Moon).forEach(planet -> {/* @formatter:off */
+      final Stepper stepper = planet.stepper(start, end, step);
+      assertSame(planet, stepper.getPlanet());
+      double deltaOfT = Double.NaN;
+      long count = 0;
+      while (stepper.hasNext()) {
+        final long index = stepper.getIndex();
+        final double julianDate = stepper.julianDateOf(index);
+        final double expected = planet.getLongitude(julianDate);
+        final double actual = stepper.nextDouble();
+        assertEquals(index + 1, stepper.getIndex());
+        assertTrue(actual >= 0 && actual < 360, Objects.toString(actual));
+        if (Astror.getDeltaOfT(julianDate) != deltaOfT) {
+          // reseeded at the first, and where Delta T changes .
+          assertEquals(expected, actual, Objects.toString(julianDate));
+        }
+        assertEquals(0, Solver.lag(actual, expected), 1E-8, Objects.toString(julianDate));
+        deltaOfT = Astror.getDeltaOfT(julianDate);
+        count++;
+      }
+      assertEquals(planet.range(start, end, step).count(), count);
+      assertTrue(stepper.getReseeds() >= count / Stepper.reseedInterval, Objects.toString(stepper.getReseeds()));
+      assertTrue(stepper.getMaxDeviation() < 1E-8, Objects.toString(stepper.getMaxDeviation()));
+      assertFalse(stepper.hasNext());
+      assertThrows(NoSuchElementException.class, stepper::nextDouble);
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testTuned() {
+    final double start = Deamtiet.j2000 + 1_000.7, end = start + 20, step = 1.0 / 1_440;
+    Arrays.stream(Cosine.values()).forEach(cosine -> {/* @formatter:off */
+      final EclipticLongitude planet = EclipticLongitude.Moon.withCosine(cosine);
+      final Stepper stepper = planet.stepper(start, end, step);
+      long reseeds = 0;
+      while (stepper.hasNext()) {
+        final double julianDate = stepper.julianDateOf(stepper.getIndex());
+        final double expected = planet.getLongitude(julianDate);
+        final double actual = stepper.nextDouble();
+        if (stepper.getReseeds() != reseeds) {
+          // reseeded with the kernel of the series, not with Math.cos .
+          assertEquals(expected, actual, cosine + ": " + julianDate);
+        }
+        assertEquals(0, Solver.lag(actual, expected), 1E-8, cosine + ": " + julianDate);
+        reseeds = stepper.getReseeds();
+      }
+      assertTrue(stepper.getReseeds() > 1, cosine + ": " + stepper.getReseeds());
+      assertTrue(stepper.getMaxDeviation() < 1E-8, cosine + ": " + stepper.getMaxDeviation());
+    /* @formatter:on */});
+  }
+
+  @Test
+  void testInvalid() {
+    assertFalse(EclipticLongitude.Moon.stepper(Deamtiet.j2000, Deamtiet.j2000, 1).hasNext());
+    assertEquals(EclipticLongitude.Moon.getLongitude(Deamtiet.j2000), EclipticLongitude.Moon.stepper(Deamtiet.j2000, Deamtiet.j2000 + 1, 1).next());
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.stepper(Deamtiet.j2000, Deamtiet.j2000 + 1, 0));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.stepper(Double.NaN, Deamtiet.j2000 + 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> EclipticLongitude.Moon.stepper(Deamtiet.j2000, Math.nextUp(Deamtiet.j2000), 1E-300));
+    assertThrows(NullPointerException.class, () -> new Stepper(null, Deamtiet.j2000, Deamtiet.j2000 + 1, 1));
+  }
+}
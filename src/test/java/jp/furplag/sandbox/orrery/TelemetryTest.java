@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jp.furplag.sandbox.time.Deamtiet;
+
+class TelemetryTest {
+
+  private final TelemetryMXBean telemetry = Telemetry.getInstance();
+
+  @TempDir
+  Path directory;
+
+  @BeforeEach
+  void setUp() {
+    telemetry.setEnabled(false);
+    telemetry.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    telemetry.setEnabled(false);
+    telemetry.reset();
+  }
+
+  @Test
+  void testDisabled() {
+    assertFalse(telemetry.isEnabled());
+    assertEquals(0, Telemetry.start());
+    IntStream.range(0, 100).forEach(i -> EclipticLongitude.Moon.getLongitude(Deamtiet.j2000 + i));
+    new SolarTerm().ofYear(2018);
+    Precession.Rotation.of(.123);
+    assertTrue(telemetry.getCalls().values().stream().allMatch(calls -> calls == 0));
+    assertTrue(Double.isNaN(telemetry.getEvaluationsPerSolve()));
+    assertTrue(telemetry.getHitRatios().values().stream().allMatch(ratio -> Double.isNaN(ratio)));
+  }
+
+  @Test
+  void testProbes() {
+    telemetry.setEnabled(true);
+    assertTrue(Telemetry.start() > 0);
+    IntStream.range(0, 100).forEach(i -> EclipticLongitude.Moon.getLongitude(Deamtiet.j2000 + i));
+    assertEquals(100, telemetry.getCalls().get("Longitude"));
+    assertTrue(telemetry.getCalls().get("DeltaT") >= 100);
+    assertEquals(100, Arrays.stream(telemetry.getLatencyHistograms().get("Longitude")).sum());
+    assertEquals(Telemetry.buckets, telemetry.getLatencyHistograms().get("Longitude").length);
+    assertTrue(telemetry.getMeanLatencies().get("Longitude") > 0);
+    assertTrue(Double.isNaN(telemetry.getMeanLatencies().get("Solve")));
+
+    new Precession.Rotation(.25).compute(1, 1);
+    new Precession.Rotation(.25).compute(new double[] { 1, 1, 2, 2 }, new double[4]);
+    assertEquals(1, telemetry.getCalls().get("Precession"));
+
+    final AtomicInteger evaluations = new AtomicInteger();
+    final Solver solver = new Solver(SolarTerm.defaultTolerance, SolarTerm.defaultMaxEvaluations);
+    IntStream.range(0, 24).forEach(i -> solver.solve(julianDate -> {
+      evaluations.incrementAndGet();
+      return EclipticLongitude.Sun.getLongitude(julianDate);
+    }, i * 15, SolarTerm.rate, Deamtiet.j2000 + i * 15));
+    assertEquals(24, telemetry.getCalls().get("Solve"));
+    assertEquals(evaluations.get() / 24.0, telemetry.getEvaluationsPerSolve());
+
+    telemetry.reset();
+    new LunarPhase().newMoons(Deamtiet.j2000, Deamtiet.j2000 + 365);
+    assertTrue(telemetry.getCalls().get("Solve") > 0);
+    assertEquals(0, telemetry.getCalls().get("Longitude"));
+
+    telemetry.reset();
+    assertTrue(telemetry.getCalls().values().stream().allMatch(calls -> calls == 0));
+  }
+
+  @Test
+  void testCaches() {
+    telemetry.setEnabled(true);
+    final double terrestrialTime = Math.PI / 10;
+    Precession.Rotation.of(terrestrialTime);
+    Precession.Rotation.of(terrestrialTime);
+    assertEquals(.5, telemetry.getHitRatios().get("Rotation"));
+    Kyureki.tableOf(1234);
+    Kyureki.tableOf(1234);
+    Kyureki.tableOf(1234);
+    assertTrue(telemetry.getHitRatios().get("Kyureki") >= 2 / 3.0);
+  }
+
+  @Test
+  void testMXBean() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = Telemetry.register();
+    try {
+      assertEquals(name, Telemetry.register());
+      assertTrue(server.isRegistered(name));
+      server.setAttribute(name, new Attribute("Enabled", true));
+      assertTrue(telemetry.isEnabled());
+      EclipticLongitude.Sun.getLongitude(Deamtiet.j2000);
+      assertEquals(1L, ((TabularData) server.getAttribute(name, "Calls")).get(new Object[] { "Longitude" }).get("value"));
+      assertTrue(((TabularData) server.getAttribute(name, "LatencyHistograms")).containsKey(new Object[] { "Solve" }));
+      assertTrue(Double.isNaN((Double) server.getAttribute(name, "EvaluationsPerSolve")));
+      server.invoke(name, "reset", null, null);
+      assertEquals(0L, ((TabularData) server.getAttribute(name, "Calls")).get(new Object[] { "Longitude" }).get("value"));
+    } finally {
+      Telemetry.unregister();
+      Telemetry.unregister();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  void testFlightRecorder() throws Exception {
+    final Path path = directory.resolve("orrery.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("jp.furplag.sandbox.orrery.Computation");
+      recording.start();
+      EclipticLongitude.Sun.getLongitude(Deamtiet.j2000);
+      telemetry.setEnabled(true);
+      new SolarTerm().of(0, Deamtiet.j2000 + 80);
+      recording.stop();
+      recording.dump(path);
+    }
+    final List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+    final List<String> probes = events.stream().map(event -> event.getString("probe")).distinct().collect(Collectors.toList());
+    assertTrue(probes.containsAll(Arrays.asList("Longitude", "DeltaT", "Solve")), probes.toString());
+    assertEquals(telemetry.getCalls().values().stream().mapToLong(Long::longValue).sum(), events.size());
+    assertTrue(events.stream().filter(event -> "Solve".equals(event.getString("probe"))).allMatch(event -> event.getInt("evaluations") > 0));
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.export;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jp.furplag.sandbox.orrery.Astror;
+import jp.furplag.sandbox.orrery.DeltaT;
+import jp.furplag.sandbox.orrery.EclipticLongitude;
+import jp.furplag.sandbox.orrery.Precession;
+import jp.furplag.sandbox.time.Deamtiet;
+
+class ExportTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void test() throws IOException {
+    final double start = Deamtiet.j2000 - 1000.25, step = 1.0 / 96;
+    final Export export = new Export(start, start + (Export.chunkSize * 2 + 123) * step, step, false, false, Export.Format.Binary);
+    assertEquals(List.of(Export.Column.JulianDate, Export.Column.Sun, Export.Column.Moon), export.getColumns());
+    assertEquals(Export.chunkSize * 2 + 123, export.getRows());
+    final Path path = directory.resolve("longitudes.bin");
+    assertEquals(export.getRows() * 3 * Double.BYTES, export.write(path));
+    final DoubleBuffer rows = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    assertEquals(export.getRows() * 3, rows.remaining());
+    for (int i = 0; rows.hasRemaining(); i++) {
+      final double julianDate = start + i * step;
+      assertArrayEquals(new double[] { julianDate, EclipticLongitude.Sun.getLongitude(julianDate), EclipticLongitude.Moon.getLongitude(julianDate) }, new double[] { rows.get(), rows.get(), rows.get() });
+    }
+  }
+
+  @Test
+  void testCsv() throws IOException {
+    final double start = Deamtiet.j2000, step = 1.0 / 24;
+    final Export export = new Export(start, start + Export.chunkSize * step * 1.5, step, true, true, Export.Format.Csv);
+    final Path path = directory.resolve("longitudes.csv");
+    final long written = export.write(path);
+    assertEquals(Files.size(path), written);
+    final List<String> lines = Files.readAllLines(path);
+    assertEquals("jd,sun,moon,delta_t,zeta,z,theta", lines.get(0));
+    assertEquals(export.getRows() + 1, lines.size());
+    for (int i = 1; i < lines.size(); i += 997) {
+      final double julianDate = start + (i - 1) * step;
+      final double[] angles = Precession.Rotation.anglesOf(Astror.toTerrestrialTime(julianDate), new double[3], 0);
+      assertEquals(String.format("%s,%s,%s,%s,%s,%s,%s", julianDate, EclipticLongitude.Sun.getLongitude(julianDate), EclipticLongitude.Moon.getLongitude(julianDate), DeltaT.estimate(julianDate), angles[0], angles[1], angles[2]), lines.get(i));
+    }
+    // overwrites .
+    assertEquals(written, new Export(start, start + Export.chunkSize * step * 1.5, step, true, true, Export.Format.Csv).write(path));
+    assertEquals(written, Files.size(path));
+  }
+
+  @Test
+  void testDeltaT() throws IOException {
+    final double start = Deamtiet.j2000, step = .5;
+    final Export export = new Export(start, start + 100 * step, step, true, false, Export.Format.Binary);
+    assertEquals(List.of(Export.Column.JulianDate, Export.Column.Sun, Export.Column.Moon, Export.Column.DeltaT), export.getColumns());
+    final Path path = directory.resolve("delta_t.bin");
+    assertEquals(export.getRows() * 4 * Double.BYTES, export.write(path));
+    final DoubleBuffer rows = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    for (int i = 0; rows.hasRemaining(); i++) {
+      final double julianDate = start + i * step;
+      assertArrayEquals(new double[] { julianDate, EclipticLongitude.Sun.getLongitude(julianDate), EclipticLongitude.Moon.getLongitude(julianDate), DeltaT.estimate(julianDate) }, new double[] { rows.get(), rows.get(), rows.get(), rows.get() });
+    }
+  }
+
+  @Test
+  void testEmpty() throws IOException {
+    Path path = directory.resolve("empty.bin");
+    assertEquals(0, new Export(Deamtiet.j2000, Deamtiet.j2000, 1, false, false, Export.Format.Binary).write(path));
+    assertEquals(0, Files.size(path));
+    path = directory.resolve("empty.csv");
+    new Export(Deamtiet.j2000, Deamtiet.j2000 - 1, 1, true, false, Export.Format.Csv).write(path);
+    assertEquals(List.of("jd,sun,moon,delta_t"), Files.readAllLines(path));
+  }
+
+  @Test
+  void testJulianDateOf() {
+    assertEquals(Deamtiet.j2000, Export.julianDateOf("2451545.0"));
+    assertEquals(Deamtiet.j2000, Export.julianDateOf("2000-01-01T12:00:00Z"));
+    assertEquals(Deamtiet.j2000 - .5, Export.julianDateOf("2000-01-01"));
+    assertThrows(IllegalArgumentException.class, () -> Export.julianDateOf("J2000"));
+    assertThrows(IllegalArgumentException.class, () -> new Export(Deamtiet.j2000, Deamtiet.j2000 + 1, 0, false, false, Export.Format.Csv));
+    assertThrows(NullPointerException.class, () -> new Export(Deamtiet.j2000, Deamtiet.j2000 + 1, 1, false, false, null));
+  }
+
+  @Test
+  void testIsValid() {
+    assertTrue(Export.isValid("2000-01-01", "2001-01-01", "1", "a.csv"));
+    assertTrue(Export.isValid("2000-01-01", "2001-01-01", "1", "a.bin", "--binary", "--delta-t", "--precession"));
+    assertTrue(Export.isValid("2000-01-01", "2001-01-01", "1", "a.csv", "--csv"));
+    assertFalse(Export.isValid("2000-01-01", "2001-01-01", "1", "a.csv", "--csv", "--binary"));
+    assertFalse(Export.isValid("2000-01-01", "2001-01-01", "1", "a.csv", "--tsv"));
+    assertFalse(Export.isValid("2000-01-01", "2001-01-01", "1"));
+  }
+
+  @Test
+  void testEncode() {
+    final ByteBuffer buffer = ByteBuffer.allocate(8);
+    Export.encode("1.0,2.0\n", buffer);
+    assertEquals("1.0,2.0\n", new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    assertThrows(IllegalStateException.class, () -> Export.encode("1.0,2.0,3.0\n", ByteBuffer.allocate(8)));
+    assertThrows(IllegalStateException.class, () -> Export.encode("\u03b6", ByteBuffer.allocate(8)));
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.furplag.sandbox.orrery.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import jp.furplag.sandbox.orrery.EclipticLongitude;
+import jp.furplag.sandbox.orrery.LunarPhase;
+import jp.furplag.sandbox.orrery.SolarTerm;
+import jp.furplag.sandbox.time.Deamtiet;
+
+class ServerTest {
+
+  private static final HttpClient client = HttpClient.newHttpClient();
+
+  private static HttpResponse<String> get(final Server server, final String path) throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uriOf(server, path)).build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static URI uriOf(final Server server, final String path) {
+    return URI.create(String.format("http://localhost:%d%s", server.getAddress().getPort(), path));
+  }
+
+  private static double[] arrayOf(final String body, final String name) {
+    final Matcher matcher = Pattern.compile(String.format("\"%s\":\\[([^\\]]*)\\]", name)).matcher(body);
+    assertTrue(matcher.find(), body);
+
+    return Arrays.stream(matcher.group(1).split(",")).mapToDouble(Double::parseDouble).toArray();
+  }
+
+  private static Server serve(final long window) throws IOException {
+    return new Server(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), null, window);
+  }
+
+  @Test
+  void test() throws IOException, InterruptedException {
+    try (Server server = serve(Server.defaultWindow)) {
+      final double[] julianDates = { Deamtiet.j2000, Deamtiet.j2000 + .5, Deamtiet.j2000 - 12345.678 };
+      final String jd = Arrays.stream(julianDates).mapToObj(Double::toString).collect(Collectors.joining(","));
+      HttpResponse<String> response = get(server, "/longitude?planet=sun&jd=" + jd);
+      assertEquals(200, response.statusCode());
+      assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null));
+      assertArrayEquals(julianDates, arrayOf(response.body(), "julianDates"));
+      assertArrayEquals(EclipticLongitude.Sun.getLongitudes(julianDates, new double[julianDates.length]), arrayOf(response.body(), "longitudes"));
+      response = get(server, "/longitude?planet=Moon&jd=" + jd);
+      assertArrayEquals(EclipticLongitude.Moon.getLongitudes(julianDates, new double[julianDates.length]), arrayOf(response.body(), "longitudes"));
+
+      response = get(server, "/solarterm?year=2020");
+      assertEquals(200, response.statusCode());
+      assertArrayEquals(new SolarTerm().ofYear(2020), arrayOf(response.body(), "julianDates"));
+
+      response = get(server, "/phase?jd=" + Deamtiet.j2000);
+      final LunarPhase lunarPhase = new LunarPhase();
+      final LunarPhase.Phase upcoming = lunarPhase.upcoming(Deamtiet.j2000);
+      assertEquals(String.format("{\"phase\":\"%s\",\"julianDate\":%s}", upcoming, lunarPhase.next(Deamtiet.j2000, upcoming)), response.body());
+      response = get(server, "/phase?phase=Full&jd=" + Deamtiet.j2000);
+      assertEquals(String.format("{\"phase\":\"Full\",\"julianDate\":%s}", lunarPhase.next(Deamtiet.j2000, LunarPhase.Phase.Full)), response.body());
+      assertEquals(2, server.getQueries());
+    }
+  }
+
+  @Test
+  void testBatch() throws IOException {
+    try (Server server = serve(TimeUnit.MILLISECONDS.toNanos(50))) {
+      final double[] julianDates = IntStream.range(0, 64).mapToDouble(i -> Deamtiet.j2000 + i * 1.25).toArray();
+      final CompletableFuture<?>[] futures = Arrays.stream(julianDates).mapToObj(julianDate -> client.sendAsync(HttpRequest.newBuilder(uriOf(server, "/longitude?planet=moon&jd=" + julianDate)).build(), HttpResponse.BodyHandlers.ofString()).thenAccept(response -> {
+        assertEquals(200, response.statusCode());
+        assertEquals(EclipticLongitude.Moon.getLongitude(julianDate), arrayOf(response.body(), "longitudes")[0]);
+      })).toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).join();
+      assertEquals(julianDates.length, server.getQueries());
+      assertTrue(server.getBatches() < server.getQueries(), String.format("%d / %d", server.getBatches(), server.getQueries()));
+    }
+    try (Server server = serve(0)) {
+      IntStream.range(0, 8).parallel().forEach(i -> client.sendAsync(HttpRequest.newBuilder(uriOf(server, "/longitude?planet=moon&jd=" + (Deamtiet.j2000 + i))).build(), HttpResponse.BodyHandlers.discarding()).join());
+      assertEquals(8, server.getQueries());
+      assertEquals(8, server.getBatches());
+    }
+  }
+
+  @Test
+  void testBatchExecutor() {
+    final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    try {
+      final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+      final EclipticLongitude planet = new EclipticLongitude() {/* @formatter:off */
+        @Override public Formula[] getFormulas() { return EclipticLongitude.Sun.getFormulas(); }
+        @Override public Series getSeries() { return EclipticLongitude.Sun.getSeries(); }
+        @Override public double[] getLongitudes(final double[] julianDates, final double[] longitudes, final int offset, final int length) {
+          threads.add(Thread.currentThread());
+
+          return EclipticLongitude.Sun.getLongitudes(julianDates, longitudes, offset, length);
+        }
+      /* @formatter:on */};
+      final LongAdder executed = new LongAdder();
+      final Batch batch = new Batch(planet, TimeUnit.MILLISECONDS.toNanos(10), timer, runnable -> {
+        executed.increment();
+        new Thread(runnable, "orrery-test").start();
+      });
+      assertArrayEquals(EclipticLongitude.Sun.getLongitudes(new double[] { Deamtiet.j2000 }, new double[1]), batch.submit(Deamtiet.j2000).join());
+      assertEquals(1, executed.sum());
+      assertEquals("orrery-test", threads.iterator().next().getName());
+      // computes in the timer, if the executor rejects .
+      final Batch rejected = new Batch(EclipticLongitude.Sun, 1, timer, runnable -> {
+        throw new RejectedExecutionException();
+      });
+      assertArrayEquals(EclipticLongitude.Sun.getLongitudes(new double[] { Deamtiet.j2000 }, new double[1]), rejected.submit(Deamtiet.j2000).join());
+    } finally {
+      timer.shutdownNow();
+    }
+  }
+
+  @Test
+  void testInvalid() throws IOException, InterruptedException {
+    try (Server server = serve(Server.defaultWindow)) {
+      assertEquals(400, get(server, "/longitude?jd=2451545").statusCode());
+      assertEquals(400, get(server, "/longitude?planet=mars&jd=2451545").statusCode());
+      assertEquals(400, get(server, "/longitude?planet=sun&jd=NaN").statusCode());
+      assertEquals(400, get(server, "/longitude?planet=sun&jd=a").statusCode());
+      assertEquals(400, get(server, "/longitude?planet=sun").statusCode());
+      assertEquals(400, get(server, "/solarterm?year=MMXX").statusCode());
+      assertEquals(400, get(server, "/phase?jd=2451545&phase=Half").statusCode());
+      assertEquals("{\"error\":\"required parameter: jd .\"}", get(server, "/phase").body());
+      assertEquals(404, get(server, "/sunrise").statusCode());
+      assertEquals("{\"error\":\"not found .\"}", get(server, "/").body());
+      assertEquals(405, client.send(HttpRequest.newBuilder(uriOf(server, "/solarterm?year=2020")).POST(HttpRequest.BodyPublishers.ofString("year=2020")).build(), HttpResponse.BodyHandlers.ofString()).statusCode());
+      final String tooMany = IntStream.rangeClosed(0, Server.maxJulianDates).mapToObj(i -> "a").collect(Collectors.joining(","));
+      assertEquals(String.format("{\"error\":\"too many julian dates: %d .\"}", Server.maxJulianDates + 1), get(server, "/longitude?planet=sun&jd=" + tooMany).body());
+      assertEquals(0, server.getQueries());
+    }
+    assertThrows(IllegalArgumentException.class, () -> serve(-1));
+  }
+
+  @Test
+  void testParameters() {
+    assertEquals(Map.of(), Server.parametersOf(null));
+    assertEquals(Map.of(), Server.parametersOf(""));
+    assertEquals(Map.of("planet", "sun", "jd", "1,2", "flag", ""), Server.parametersOf("planet=sun&jd=1%2C2&flag"));
+  }
+}